@@ -2,8 +2,10 @@ package com.healthcare.appointment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AppointmentApplication {
     public static void main(String[] args) {
         SpringApplication.run(AppointmentApplication.class, args);
@@ -0,0 +1,160 @@
+package com.healthcare.appointment.cluster;
+
+import com.healthcare.appointment.dto.ClusterStats;
+import com.healthcare.appointment.service.AppointmentChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cluster-wide coordination on top of a {@link ClusterTransport}:
+ * <ul>
+ *   <li>shard ownership: every key (a doctor name, a job name) has exactly one owner node,
+ *       chosen by rendezvous hashing over the current members;</li>
+ *   <li>booking serialization: commands for a doctor run on its owner under a per-doctor lock,
+ *       so check-then-insert cannot interleave across nodes;</li>
+ *   <li>invalidation: committed appointment changes are re-published as events on every other node.</li>
+ * </ul>
+ */
+@Component
+@Lazy(false) // Peers may send events and commands before the first local request
+public class ClusterCoordinator {
+
+    private static final String APPOINTMENT_TOPIC = "appointment-changed";
+    private static final String COMMAND_TOPIC = "owner-command";
+    static final int LOCK_STRIPES = 256;
+
+    private static final class OwnerCommand implements Serializable {
+        final String shardKey;
+        final Serializable payload;
+
+        OwnerCommand(String shardKey, Serializable payload) {
+            this.shardKey = shardKey;
+            this.payload = payload;
+        }
+    }
+
+    private final ClusterTransport transport;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final LongAdder localCommands = new LongAdder();
+    private final LongAdder forwardedCommands = new LongAdder();
+    private volatile Function<Object, Object> commandHandler;
+
+    public ClusterCoordinator(ClusterTransport transport, ApplicationEventPublisher eventPublisher) {
+        this.transport = transport;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        transport.registerHandler(COMMAND_TOPIC, command -> {
+            OwnerCommand ownerCommand = (OwnerCommand) command;
+            return executeLocally(ownerCommand.shardKey, ownerCommand.payload);
+        });
+        transport.subscribe(APPOINTMENT_TOPIC,
+                message -> eventPublisher.publishEvent(((AppointmentChangedEvent) message).asRemote()));
+    }
+
+    public void registerCommandHandler(Function<Object, Object> handler) {
+        this.commandHandler = handler;
+    }
+
+    /**
+     * Runs the command on the owner of {@code shardKey}, serialized with every other command
+     * for the same key. Exceptions thrown by the handler reach the caller unchanged.
+     */
+    public Object executeOnOwner(String shardKey, Serializable command) {
+        String owner = ownerOf(shardKey);
+        if (owner.equals(transport.getLocalNodeId())) {
+            return executeLocally(shardKey, command);
+        }
+        forwardedCommands.increment();
+        return transport.request(owner, COMMAND_TOPIC, new OwnerCommand(shardKey, command));
+    }
+
+    public boolean isLocalOwner(String shardKey) {
+        return ownerOf(shardKey).equals(transport.getLocalNodeId());
+    }
+
+    public String ownerOf(String shardKey) {
+        String owner = null;
+        long best = Long.MIN_VALUE;
+        for (String member : transport.getMembers()) {
+            long score = mix(member.hashCode() * 0x9E3779B97F4A7C15L + shardKey.hashCode());
+            if (owner == null || score > best) {
+                owner = member;
+                best = score;
+            }
+        }
+        return owner != null ? owner : transport.getLocalNodeId();
+    }
+
+    public void broadcast(String topic, Serializable message) {
+        transport.broadcast(topic, message);
+    }
+
+    public void subscribe(String topic, Consumer<Object> listener) {
+        transport.subscribe(topic, listener);
+    }
+
+    public void registerHandler(String topic, Function<Object, Object> handler) {
+        transport.registerHandler(topic, handler);
+    }
+
+    public Object request(String nodeId, String topic, Serializable message) {
+        return transport.request(nodeId, topic, message);
+    }
+
+    public String getLocalNodeId() {
+        return transport.getLocalNodeId();
+    }
+
+    public Set<String> getMembers() {
+        return transport.getMembers();
+    }
+
+    public long getForwardedCommands() {
+        return forwardedCommands.sum();
+    }
+
+    public ClusterStats getStats() {
+        return new ClusterStats(transport.getLocalNodeId(), transport.getMembers(),
+                localCommands.sum(), forwardedCommands.sum());
+    }
+
+    @TransactionalEventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (!event.isRemote()) {
+            transport.broadcast(APPOINTMENT_TOPIC, event);
+        }
+    }
+
+    private Object executeLocally(String shardKey, Object command) {
+        if (commandHandler == null) {
+            throw new IllegalStateException("Node " + transport.getLocalNodeId() + " is not ready for commands");
+        }
+        ReentrantLock lock = stripes[Math.floorMod(shardKey.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            localCommands.increment();
+            return commandHandler.apply(command);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,27 @@
+package com.healthcare.appointment.cluster;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Messaging between backend nodes. Implementations deliver broadcasts to every other member
+ * in send order per sender, and route requests to exactly one member.
+ */
+public interface ClusterTransport {
+
+    String getLocalNodeId();
+
+    Set<String> getMembers();
+
+    void broadcast(String topic, Serializable message);
+
+    void subscribe(String topic, Consumer<Object> listener);
+
+    Object request(String nodeId, String topic, Serializable message);
+
+    void registerHandler(String topic, Function<Object, Object> handler);
+
+    void leave();
+}
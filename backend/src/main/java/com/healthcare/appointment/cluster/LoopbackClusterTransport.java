@@ -0,0 +1,108 @@
+package com.healthcare.appointment.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-JVM transport: nodes that join the same cluster name in one JVM see each other.
+ * Broadcasts go through each receiver's single-threaded inbox, like messages on a connection;
+ * requests run on the caller's thread against the target node's handler.
+ */
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackClusterTransport.class);
+    private static final Map<String, Map<String, LoopbackClusterTransport>> CLUSTERS = new ConcurrentHashMap<>();
+
+    private final String clusterName;
+    private final String nodeId;
+    private final Map<String, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Function<Object, Object>> handlers = new ConcurrentHashMap<>();
+    private final ExecutorService inbox;
+
+    public LoopbackClusterTransport(String clusterName, String nodeId) {
+        this.clusterName = clusterName;
+        this.nodeId = nodeId;
+        this.inbox = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-inbox-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (CLUSTERS.computeIfAbsent(clusterName, name -> new ConcurrentHashMap<>()).putIfAbsent(nodeId, this) != null) {
+            throw new IllegalStateException("Node " + nodeId + " already joined cluster " + clusterName);
+        }
+    }
+
+    @Override
+    public String getLocalNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public Set<String> getMembers() {
+        return new TreeSet<>(cluster().keySet());
+    }
+
+    @Override
+    public void broadcast(String topic, Serializable message) {
+        for (LoopbackClusterTransport peer : cluster().values()) {
+            if (peer != this) {
+                peer.inbox.execute(() -> peer.deliver(topic, message));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<Object> listener) {
+        listeners.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public Object request(String targetNodeId, String topic, Serializable message) {
+        LoopbackClusterTransport target = cluster().get(targetNodeId);
+        if (target == null) {
+            throw new IllegalStateException("Cluster node not reachable: " + targetNodeId);
+        }
+        Function<Object, Object> handler = target.handlers.get(topic);
+        if (handler == null) {
+            throw new IllegalStateException("No handler for " + topic + " on " + targetNodeId);
+        }
+        return handler.apply(message);
+    }
+
+    @Override
+    public void registerHandler(String topic, Function<Object, Object> handler) {
+        handlers.put(topic, handler);
+    }
+
+    @Override
+    public void leave() {
+        cluster().remove(nodeId, this);
+        inbox.shutdown();
+    }
+
+    private void deliver(String topic, Object message) {
+        for (Consumer<Object> listener : listeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException e) {
+                logger.warn("Cluster listener for {} on {} failed", topic, nodeId, e);
+            }
+        }
+    }
+
+    private Map<String, LoopbackClusterTransport> cluster() {
+        return CLUSTERS.getOrDefault(clusterName, Map.of());
+    }
+}
@@ -0,0 +1,29 @@
+package com.healthcare.appointment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ArchiveConfig {
+
+    @Value("${archive.horizon-days:365}")
+    private long horizonDays;
+
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${archive.batch-pause-ms:50}") // Gap between batches so booking traffic gets the locks
+    private long batchPauseMs;
+
+    public long getHorizonDays() {
+        return horizonDays;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getBatchPauseMs() {
+        return batchPauseMs;
+    }
+}
@@ -0,0 +1,32 @@
+package com.healthcare.appointment.config;
+
+import com.healthcare.appointment.cluster.ClusterTransport;
+import com.healthcare.appointment.cluster.LoopbackClusterTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+public class ClusterConfig {
+
+    @Value("${cluster.name:healthcare}")
+    private String clusterName;
+
+    @Value("${cluster.node-id:}") // Random when unset
+    private String nodeId;
+
+    @Value("${cluster.transport:loopback}")
+    private String transport;
+
+    // Only the in-JVM transport ships today; a network transport plugs in here
+    @Bean(destroyMethod = "leave")
+    public ClusterTransport clusterTransport() {
+        if (!"loopback".equals(transport)) {
+            throw new IllegalArgumentException("Unsupported cluster transport: " + transport);
+        }
+        String localNodeId = nodeId.isBlank() ? "node-" + UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        return new LoopbackClusterTransport(clusterName, localNodeId);
+    }
+}
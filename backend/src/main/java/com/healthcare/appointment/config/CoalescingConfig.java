@@ -0,0 +1,15 @@
+package com.healthcare.appointment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CoalescingConfig {
+
+    @Value("${coalescing.timeout-ms:2000}") // How long a caller waits on another caller's query
+    private long timeoutMillis;
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
@@ -12,6 +12,12 @@ public class JwtConfig {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private long expiration;
 
+    @Value("${jwt.denylist.bucket-ms:3600000}") // Revoked tokens are grouped by expiry hour
+    private long denylistBucketMillis;
+
+    @Value("${jwt.denylist.bits-per-bucket:1048576}")
+    private int denylistBitsPerBucket;
+
     public String getSecret() {
         return secret;
     }
@@ -19,5 +25,13 @@ public class JwtConfig {
     public long getExpiration() {
         return expiration;
     }
+
+    public long getDenylistBucketMillis() {
+        return denylistBucketMillis;
+    }
+
+    public int getDenylistBitsPerBucket() {
+        return denylistBitsPerBucket;
+    }
 }
 
@@ -0,0 +1,15 @@
+package com.healthcare.appointment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StatsConfig {
+
+    @Value("${stats.slots-per-day:20}") // Half-hour slots from 08:00 to 18:00
+    private int slotsPerDay;
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+}
@@ -2,16 +2,24 @@ package com.healthcare.appointment.controller;
 
 import com.healthcare.appointment.dto.AppointmentRequest;
 import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.dto.CalendarSubscriptionResponse;
 import com.healthcare.appointment.security.JwtTokenProvider;
 import com.healthcare.appointment.service.AppointmentService;
+import com.healthcare.appointment.service.CalendarFeedService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -20,10 +28,13 @@ public class AppointmentController {
 
     private final AppointmentService appointmentService;
     private final JwtTokenProvider tokenProvider;
+    private final CalendarFeedService calendarFeedService;
 
-    public AppointmentController(AppointmentService appointmentService, JwtTokenProvider tokenProvider) {
+    public AppointmentController(AppointmentService appointmentService, JwtTokenProvider tokenProvider,
+                                 CalendarFeedService calendarFeedService) {
         this.appointmentService = appointmentService;
         this.tokenProvider = tokenProvider;
+        this.calendarFeedService = calendarFeedService;
     }
 
     private Long getUserIdFromAuthentication(HttpServletRequest request) {
@@ -53,12 +64,80 @@ public class AppointmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AppointmentResponse>> getUserAppointments(HttpServletRequest request) {
+    public ResponseEntity<List<AppointmentResponse>> getUserAppointments(
+            @RequestParam(defaultValue = "false") boolean includeHistory,
+            HttpServletRequest request) {
+        Long userId = getUserIdFromAuthentication(request);
+        List<AppointmentResponse> appointments = appointmentService.getUserAppointments(userId, includeHistory);
+        return ResponseEntity.ok(appointments);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<AppointmentResponse>> searchAppointments(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
         Long userId = getUserIdFromAuthentication(request);
-        List<AppointmentResponse> appointments = appointmentService.getUserAppointments(userId);
+        List<AppointmentResponse> appointments = appointmentService.searchAppointments(userId, query, Math.min(limit, 100));
         return ResponseEntity.ok(appointments);
     }
 
+    // Full feed without syncToken; a client that stores the X-Sync-Token header and sends it back
+    // opts in to receiving only the appointments changed since then.
+    @GetMapping("/calendar.ics")
+    public ResponseEntity<StreamingResponseBody> getCalendarFeed(
+            @RequestParam(required = false) Long syncToken,
+            HttpServletRequest request) {
+        Long userId = getUserIdFromAuthentication(request);
+        long upTo = calendarFeedService.currentSyncToken();
+        // A token from a node that is further ahead just resends the gap
+        long after = syncToken == null ? -1 : Math.min(syncToken, upTo);
+        StreamingResponseBody body = out -> calendarFeedService.writeFeed(userId, after, upTo, out);
+        return ResponseEntity.ok()
+                .header("X-Sync-Token", String.valueOf(upTo))
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // Issues a new subscription URL; the previous one stops working
+    @PostMapping("/calendar/subscription")
+    public ResponseEntity<?> createCalendarSubscription(HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromAuthentication(request);
+            String secret = calendarFeedService.issueSubscriptionSecret(userId);
+            String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/appointments/calendar/{secret}.ics")
+                    .buildAndExpand(secret)
+                    .toUriString();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new CalendarSubscriptionResponse(url));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/calendar/subscription")
+    public ResponseEntity<Void> revokeCalendarSubscription(HttpServletRequest request) {
+        Long userId = getUserIdFromAuthentication(request);
+        calendarFeedService.revokeSubscriptionSecret(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Public: the secret in the URL is the credential. Calendar apps poll it without tokens,
+    // so it always serves the full feed.
+    @GetMapping("/calendar/{secret}.ics")
+    public ResponseEntity<StreamingResponseBody> getSubscribedCalendarFeed(@PathVariable String secret) {
+        Optional<Long> userId = calendarFeedService.findSubscriber(secret);
+        if (userId.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        long upTo = calendarFeedService.currentSyncToken();
+        StreamingResponseBody body = out -> calendarFeedService.writeFeed(userId.get(), -1, upTo, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getAppointmentById(
             @PathVariable Long id,
@@ -85,6 +164,9 @@ public class AppointmentController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Appointment was changed by another request, please reload it"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new ErrorResponse(e.getMessage()));
@@ -99,6 +181,9 @@ public class AppointmentController {
             Long userId = getUserIdFromAuthentication(request);
             appointmentService.cancelAppointment(id, userId);
             return ResponseEntity.noContent().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Appointment was changed by another request, please reload it"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new ErrorResponse(e.getMessage()));
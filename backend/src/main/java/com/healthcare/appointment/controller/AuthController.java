@@ -4,6 +4,7 @@ import com.healthcare.appointment.dto.AuthResponse;
 import com.healthcare.appointment.dto.LoginRequest;
 import com.healthcare.appointment.dto.RegisterRequest;
 import com.healthcare.appointment.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -42,6 +43,36 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        try {
+            authService.logout(getToken(request));
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutEverywhere(HttpServletRequest request) {
+        try {
+            authService.logoutEverywhere(getToken(request));
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    private String getToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        throw new RuntimeException("No authentication token found");
+    }
+
     private static class ErrorResponse {
         private String message;
 
@@ -0,0 +1,52 @@
+package com.healthcare.appointment.controller;
+
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.dto.ClusterStats;
+import com.healthcare.appointment.dto.CoalescingStats;
+import com.healthcare.appointment.dto.DoctorDayStats;
+import com.healthcare.appointment.service.AppointmentService;
+import com.healthcare.appointment.service.DoctorLoadStats;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    private final AppointmentService appointmentService;
+    private final DoctorLoadStats doctorLoadStats;
+    private final ClusterCoordinator clusterCoordinator;
+
+    public StatsController(AppointmentService appointmentService, DoctorLoadStats doctorLoadStats,
+                           ClusterCoordinator clusterCoordinator) {
+        this.appointmentService = appointmentService;
+        this.doctorLoadStats = doctorLoadStats;
+        this.clusterCoordinator = clusterCoordinator;
+    }
+
+    @GetMapping("/doctors")
+    public ResponseEntity<List<DoctorDayStats>> getDoctorStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String doctorName) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        if (doctorName != null) {
+            return ResponseEntity.ok(List.of(doctorLoadStats.getDoctorDay(doctorName, day)));
+        }
+        return ResponseEntity.ok(doctorLoadStats.getDay(day));
+    }
+
+    @GetMapping("/coalescing")
+    public ResponseEntity<List<CoalescingStats>> getCoalescingStats() {
+        return ResponseEntity.ok(appointmentService.getCoalescingStats());
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<ClusterStats> getClusterStats() {
+        return ResponseEntity.ok(clusterCoordinator.getStats());
+    }
+}
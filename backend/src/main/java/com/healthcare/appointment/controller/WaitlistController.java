@@ -0,0 +1,85 @@
+package com.healthcare.appointment.controller;
+
+import com.healthcare.appointment.dto.WaitlistRequest;
+import com.healthcare.appointment.dto.WaitlistResponse;
+import com.healthcare.appointment.security.JwtTokenProvider;
+import com.healthcare.appointment.service.WaitlistService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "*")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+    private final JwtTokenProvider tokenProvider;
+
+    public WaitlistController(WaitlistService waitlistService, JwtTokenProvider tokenProvider) {
+        this.waitlistService = waitlistService;
+        this.tokenProvider = tokenProvider;
+    }
+
+    private Long getUserIdFromAuthentication(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            return tokenProvider.getUserIdFromToken(token);
+        }
+        throw new RuntimeException("No authentication token found");
+    }
+
+    @PostMapping
+    public ResponseEntity<?> joinWaitlist(
+            @Valid @RequestBody WaitlistRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            Long userId = getUserIdFromAuthentication(httpRequest);
+            WaitlistResponse response = waitlistService.joinWaitlist(userId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to join waitlist"));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WaitlistResponse>> getUserEntries(HttpServletRequest request) {
+        Long userId = getUserIdFromAuthentication(request);
+        return ResponseEntity.ok(waitlistService.getUserEntries(userId));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leaveWaitlist(
+            @PathVariable Long id,
+            HttpServletRequest request) {
+        try {
+            Long userId = getUserIdFromAuthentication(request);
+            waitlistService.leaveWaitlist(id, userId);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    private static class ErrorResponse {
+        private String message;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -4,9 +4,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
-public class AppointmentRequest {
+public class AppointmentRequest implements Serializable {
     @NotBlank(message = "Doctor name is required")
     private String doctorName;
     
@@ -4,9 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
-public class AppointmentResponse {
+public class AppointmentResponse implements Serializable {
     private Long id;
     private Long userId;
     private String doctorName;
@@ -14,6 +15,7 @@ public class AppointmentResponse {
     private String reason;
     private String status;
     private LocalDateTime createdAt;
+    private Long changeSeq;
     
     public AppointmentResponse() {}
     
@@ -42,5 +44,7 @@ public class AppointmentResponse {
     public void setStatus(String status) { this.status = status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
 }
 
@@ -0,0 +1,15 @@
+package com.healthcare.appointment.dto;
+
+public class CalendarSubscriptionResponse {
+    private String url;
+
+    public CalendarSubscriptionResponse() {}
+
+    public CalendarSubscriptionResponse(String url) {
+        this.url = url;
+    }
+
+    // Getters and Setters
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+}
@@ -0,0 +1,29 @@
+package com.healthcare.appointment.dto;
+
+import java.util.Set;
+
+public class ClusterStats {
+    private String nodeId;
+    private Set<String> members;
+    private long localCommands;
+    private long forwardedCommands;
+
+    public ClusterStats() {}
+
+    public ClusterStats(String nodeId, Set<String> members, long localCommands, long forwardedCommands) {
+        this.nodeId = nodeId;
+        this.members = members;
+        this.localCommands = localCommands;
+        this.forwardedCommands = forwardedCommands;
+    }
+
+    // Getters and Setters
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    public Set<String> getMembers() { return members; }
+    public void setMembers(Set<String> members) { this.members = members; }
+    public long getLocalCommands() { return localCommands; }
+    public void setLocalCommands(long localCommands) { this.localCommands = localCommands; }
+    public long getForwardedCommands() { return forwardedCommands; }
+    public void setForwardedCommands(long forwardedCommands) { this.forwardedCommands = forwardedCommands; }
+}
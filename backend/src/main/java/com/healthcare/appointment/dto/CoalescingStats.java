@@ -0,0 +1,36 @@
+package com.healthcare.appointment.dto;
+
+public class CoalescingStats {
+    private String name;
+    private long calls;
+    private long executions;
+    private long coalesced;
+    private long timeouts;
+
+    public CoalescingStats() {}
+
+    public CoalescingStats(String name, long calls, long executions, long coalesced, long timeouts) {
+        this.name = name;
+        this.calls = calls;
+        this.executions = executions;
+        this.coalesced = coalesced;
+        this.timeouts = timeouts;
+    }
+
+    // Share of calls answered by another caller's in-flight query
+    public double getCoalescingRatio() {
+        return calls == 0 ? 0 : (double) (coalesced - timeouts) / calls;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public long getCalls() { return calls; }
+    public void setCalls(long calls) { this.calls = calls; }
+    public long getExecutions() { return executions; }
+    public void setExecutions(long executions) { this.executions = executions; }
+    public long getCoalesced() { return coalesced; }
+    public void setCoalesced(long coalesced) { this.coalesced = coalesced; }
+    public long getTimeouts() { return timeouts; }
+    public void setTimeouts(long timeouts) { this.timeouts = timeouts; }
+}
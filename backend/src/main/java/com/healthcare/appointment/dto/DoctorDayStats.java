@@ -0,0 +1,33 @@
+package com.healthcare.appointment.dto;
+
+import java.time.LocalDate;
+
+public class DoctorDayStats {
+    private String doctorName;
+    private LocalDate date;
+    private long booked;
+    private long cancelled;
+    private long free;
+
+    public DoctorDayStats() {}
+
+    public DoctorDayStats(String doctorName, LocalDate date, long booked, long cancelled, long free) {
+        this.doctorName = doctorName;
+        this.date = date;
+        this.booked = booked;
+        this.cancelled = cancelled;
+        this.free = free;
+    }
+
+    // Getters and Setters
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public long getBooked() { return booked; }
+    public void setBooked(long booked) { this.booked = booked; }
+    public long getCancelled() { return cancelled; }
+    public void setCancelled(long cancelled) { this.cancelled = cancelled; }
+    public long getFree() { return free; }
+    public void setFree(long free) { this.free = free; }
+}
@@ -0,0 +1,29 @@
+package com.healthcare.appointment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public class WaitlistRequest {
+    @NotBlank(message = "Doctor name is required")
+    private String doctorName;
+
+    @NotNull(message = "Window start is required")
+    private LocalDateTime windowStart;
+
+    @NotNull(message = "Window end is required")
+    private LocalDateTime windowEnd;
+
+    private String reason;
+
+    // Getters and Setters
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public LocalDateTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDateTime windowStart) { this.windowStart = windowStart; }
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalDateTime windowEnd) { this.windowEnd = windowEnd; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
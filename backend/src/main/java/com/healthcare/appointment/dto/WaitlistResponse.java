@@ -0,0 +1,50 @@
+package com.healthcare.appointment.dto;
+
+import java.time.LocalDateTime;
+
+public class WaitlistResponse {
+    private Long id;
+    private Long userId;
+    private String doctorName;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private String reason;
+    private String status;
+    private Long appointmentId;
+    private LocalDateTime createdAt;
+
+    public WaitlistResponse() {}
+
+    public WaitlistResponse(Long id, Long userId, String doctorName, LocalDateTime windowStart, LocalDateTime windowEnd,
+                            String reason, String status, Long appointmentId, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.doctorName = doctorName;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.reason = reason;
+        this.status = status;
+        this.appointmentId = appointmentId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public LocalDateTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalDateTime windowStart) { this.windowStart = windowStart; }
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalDateTime windowEnd) { this.windowEnd = windowEnd; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -8,7 +8,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_user_id", columnList = "userId"),
+        @Index(name = "idx_appointments_date_time", columnList = "appointmentDateTime"),
+        @Index(name = "idx_appointments_user_change_seq", columnList = "userId, changeSeq"),
+        // Backstop for owner routing: while membership changes, two nodes may briefly both own a doctor
+        @Index(name = "uk_appointments_active_slot", columnList = "activeDoctorName, appointmentDateTime", unique = true)
+})
 @Data
 @NoArgsConstructor
 public class Appointment {
@@ -31,6 +37,17 @@ public class Appointment {
     
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private long changeSeq; // Bumped on every write, drives calendar sync tokens
+
+    @Version
+    private long version; // A write based on a stale read fails instead of overwriting a newer status
+
+    // Doctor name while the appointment holds its slot, null once cancelled; computed by the database
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN status <> 'CANCELLED' THEN doctor_name END)")
+    private String activeDoctorName;
     
     @PrePersist
     protected void onCreate() {
@@ -48,6 +65,8 @@ public class Appointment {
     public String getReason() { return reason; }
     public String getStatus() { return status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getChangeSeq() { return changeSeq; }
+    public long getVersion() { return version; }
     
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -57,5 +76,7 @@ public class Appointment {
     public void setReason(String reason) { this.reason = reason; }
     public void setStatus(String status) { this.status = status; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+    public void setVersion(long version) { this.version = version; }
 }
 
@@ -0,0 +1,79 @@
+package com.healthcare.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_appointments_archive_user_id", columnList = "userId"),
+        @Index(name = "idx_appointments_archive_user_change_seq", columnList = "userId, changeSeq")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedAppointment {
+    @Id
+    private Long id; // Same id the appointment had in the hot table
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String doctorName;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentDateTime;
+
+    private String reason;
+
+    private String status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(nullable = false)
+    private long changeSeq; // Last change sequence the row had in the hot table
+
+    @Column(nullable = false)
+    private long version; // Last version the row had in the hot table; archived rows are never written again
+
+    public ArchivedAppointment(Appointment appointment, LocalDateTime archivedAt) {
+        this.id = appointment.getId();
+        this.userId = appointment.getUserId();
+        this.doctorName = appointment.getDoctorName();
+        this.appointmentDateTime = appointment.getAppointmentDateTime();
+        this.reason = appointment.getReason();
+        this.status = appointment.getStatus();
+        this.createdAt = appointment.getCreatedAt();
+        this.archivedAt = archivedAt;
+        this.changeSeq = appointment.getChangeSeq();
+        this.version = appointment.getVersion();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getDoctorName() { return doctorName; }
+    public void setDoctorName(String doctorName) { this.doctorName = doctorName; }
+    public LocalDateTime getAppointmentDateTime() { return appointmentDateTime; }
+    public void setAppointmentDateTime(LocalDateTime appointmentDateTime) { this.appointmentDateTime = appointmentDateTime; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+    public long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(long changeSeq) { this.changeSeq = changeSeq; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
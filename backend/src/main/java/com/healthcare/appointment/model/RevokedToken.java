@@ -0,0 +1,39 @@
+package com.healthcare.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String jti; // Null for a user-wide revocation
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt; // For user-wide revocations: tokens issued before this are revoked
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // Row can be purged after this
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
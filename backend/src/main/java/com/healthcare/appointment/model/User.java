@@ -26,6 +26,9 @@ public class User {
     
     private String firstName;
     private String lastName;
+
+    @Column(unique = true)
+    private String calendarFeedSecretHash; // SHA-256 of the calendar subscription secret, null when none
     
     // Getters and Setters
     public Long getId() { return id; }
@@ -40,5 +43,7 @@ public class User {
     public void setFirstName(String firstName) { this.firstName = firstName; }
     public String getLastName() { return lastName; }
     public void setLastName(String lastName) { this.lastName = lastName; }
+    public String getCalendarFeedSecretHash() { return calendarFeedSecretHash; }
+    public void setCalendarFeedSecretHash(String calendarFeedSecretHash) { this.calendarFeedSecretHash = calendarFeedSecretHash; }
 }
 
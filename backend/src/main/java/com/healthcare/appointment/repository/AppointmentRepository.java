@@ -1,7 +1,12 @@
 package com.healthcare.appointment.repository;
 
 import com.healthcare.appointment.model.Appointment;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -11,6 +16,30 @@ import java.util.List;
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     List<Appointment> findByUserId(Long userId);
     List<Appointment> findByUserIdAndAppointmentDateTimeAfter(Long userId, LocalDateTime dateTime);
-    boolean existsByAppointmentDateTimeAndDoctorName(LocalDateTime dateTime, String doctorName);
+    boolean existsByAppointmentDateTimeAndDoctorNameAndStatusNot(LocalDateTime dateTime, String doctorName, String status);
+    // Locks the rows so an update or cancel cannot commit between copying and deleting them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Appointment> findByAppointmentDateTimeBeforeOrderByAppointmentDateTimeAsc(LocalDateTime cutoff, Pageable pageable);
+    List<Appointment> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Rows of [doctorName, LocalDate, status, count]; only used to rebuild in-memory stats at startup
+    @Query("select a.doctorName, cast(a.appointmentDateTime as LocalDate), a.status, count(a) from Appointment a "
+            + "group by a.doctorName, cast(a.appointmentDateTime as LocalDate), a.status")
+    List<Object[]> countByDoctorDayAndStatus();
+
+    @Query("select coalesce(max(a.changeSeq), 0) from Appointment a")
+    long findMaxChangeSeq();
+
+    // Rows of [id, changeSeq] for after < changeSeq <= upTo; only used while rebuilding in-memory stats
+    @Query("select a.id, a.changeSeq from Appointment a where a.changeSeq > :after and a.changeSeq <= :upTo")
+    List<Object[]> findChangeSeqsBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    // Keyset page over (changeSeq, id): rows changed after the cursor, up to a sync token
+    @Query("select a from Appointment a where a.userId = :userId and a.changeSeq <= :upTo "
+            + "and (a.changeSeq > :afterSeq or (a.changeSeq = :afterSeq and a.id > :afterId)) "
+            + "order by a.changeSeq asc, a.id asc")
+    List<Appointment> findChangedForUser(@Param("userId") Long userId, @Param("afterSeq") long afterSeq,
+                                         @Param("afterId") long afterId, @Param("upTo") long upTo,
+                                         Pageable pageable);
 }
 
@@ -0,0 +1,34 @@
+package com.healthcare.appointment.repository;
+
+import com.healthcare.appointment.model.ArchivedAppointment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+    List<ArchivedAppointment> findByUserId(Long userId);
+
+    @Query("select coalesce(max(a.changeSeq), 0) from ArchivedAppointment a")
+    long findMaxChangeSeq();
+
+    // Same shapes as the AppointmentRepository queries that rebuild in-memory stats
+    @Query("select a.doctorName, cast(a.appointmentDateTime as LocalDate), a.status, count(a) from ArchivedAppointment a "
+            + "group by a.doctorName, cast(a.appointmentDateTime as LocalDate), a.status")
+    List<Object[]> countByDoctorDayAndStatus();
+
+    @Query("select a.id, a.changeSeq from ArchivedAppointment a where a.changeSeq > :after and a.changeSeq <= :upTo")
+    List<Object[]> findChangeSeqsBetween(@Param("after") long after, @Param("upTo") long upTo);
+
+    // Same keyset page as AppointmentRepository.findChangedForUser; archived rows keep their change number
+    @Query("select a from ArchivedAppointment a where a.userId = :userId and a.changeSeq <= :upTo "
+            + "and (a.changeSeq > :afterSeq or (a.changeSeq = :afterSeq and a.id > :afterId)) "
+            + "order by a.changeSeq asc, a.id asc")
+    List<ArchivedAppointment> findChangedForUser(@Param("userId") Long userId, @Param("afterSeq") long afterSeq,
+                                                 @Param("afterId") long afterId, @Param("upTo") long upTo,
+                                                 Pageable pageable);
+}
@@ -9,6 +9,7 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    Optional<User> findByCalendarFeedSecretHash(String calendarFeedSecretHash);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 }
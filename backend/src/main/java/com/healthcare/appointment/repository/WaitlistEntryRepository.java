@@ -0,0 +1,16 @@
+package com.healthcare.appointment.repository;
+
+import com.healthcare.appointment.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    List<WaitlistEntry> findByUserId(Long userId);
+    List<WaitlistEntry> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Pageable pageable);
+    List<WaitlistEntry> findByStatusAndWindowEndBefore(String status, LocalDateTime dateTime);
+}
@@ -0,0 +1,193 @@
+package com.healthcare.appointment.search;
+
+import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.service.AppointmentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over doctor names and appointment reasons.
+ * Every appointment is also posted under a per-user term, so user scoping is
+ * just one more posting list in the intersection.
+ * The index is built once all singletons exist, before the web server accepts requests, so
+ * searches never see a partial index. Changes relayed by peers during the build are held
+ * back and replayed in arrival order afterwards; replaying a change the build already read
+ * leaves the postings as they are.
+ */
+@Component
+@Lazy(false)
+public class AppointmentSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentSearchIndex.class);
+    private static final int BUILD_BATCH_SIZE = 5000;
+    private static final String USER_TERM_PREFIX = "\u0000user:";
+
+    private final AppointmentRepository appointmentRepository;
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<AppointmentChangedEvent> pendingChanges = new ArrayList<>();
+    private boolean built; // Guarded by pendingChanges
+
+    public AppointmentSearchIndex(AppointmentRepository appointmentRepository) {
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        build();
+        synchronized (pendingChanges) {
+            pendingChanges.forEach(this::apply);
+            pendingChanges.clear();
+            built = true;
+        }
+    }
+
+    /**
+     * Posts every stored appointment. Also called by bulk loaders that write around the
+     * service once they are done; posting an appointment that is already indexed is a no-op.
+     */
+    public void build() {
+        long started = System.currentTimeMillis();
+        long lastId = 0;
+        int total = 0;
+        List<Appointment> batch;
+        do {
+            batch = appointmentRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Appointment appointment : batch) {
+                    post(terms(appointment.getUserId(), appointment.getDoctorName(), appointment.getReason()),
+                            docId(appointment.getId()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                total += batch.size();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        logger.info("Search index built: {} appointments, {} terms in {} ms",
+                total, postings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        synchronized (pendingChanges) {
+            if (!built) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(AppointmentChangedEvent event) {
+        AppointmentResponse previous = event.getPrevious();
+        AppointmentResponse current = event.getCurrent();
+        Set<String> oldTerms = previous == null ? Collections.emptySet()
+                : terms(previous.getUserId(), previous.getDoctorName(), previous.getReason());
+        Set<String> newTerms = current == null ? Collections.emptySet()
+                : terms(current.getUserId(), current.getDoctorName(), current.getReason());
+        int docId = docId(current != null ? current.getId() : previous.getId());
+
+        lock.writeLock().lock();
+        try {
+            for (String term : oldTerms) {
+                if (!newTerms.contains(term)) {
+                    PostingList list = postings.get(term);
+                    if (list != null && list.remove(docId) && list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            Set<String> added = new HashSet<>(newTerms);
+            added.removeAll(oldTerms);
+            post(added, docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} ids of the user's appointments matching every query
+     * token, most recently booked first.
+     */
+    public List<Long> search(Long userId, String query, int limit) {
+        Set<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(tokens.size() + 1);
+            lists.add(postings.get(USER_TERM_PREFIX + userId));
+            for (String token : tokens) {
+                lists.add(postings.get(token));
+            }
+            if (lists.contains(null)) {
+                return Collections.emptyList();
+            }
+            // Walk the shortest list (usually the user's own) newest first and probe the others
+            // through their skip pointers, so cost follows the user's appointments, not the corpus
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            int[] candidates = lists.get(0).toArray();
+            List<PostingList.Probe> probes = new ArrayList<>(lists.size() - 1);
+            for (int i = 1; i < lists.size(); i++) {
+                probes.add(lists.get(i).probe());
+            }
+            for (int i = candidates.length - 1; i >= 0 && ids.size() < limit; i--) {
+                if (matchesAll(probes, candidates[i])) {
+                    ids.add((long) candidates[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids;
+    }
+
+    private static boolean matchesAll(List<PostingList.Probe> probes, int docId) {
+        for (PostingList.Probe probe : probes) {
+            if (!probe.contains(docId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void post(Set<String> terms, int docId) {
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(docId);
+        }
+    }
+
+    private static Set<String> terms(Long userId, String doctorName, String reason) {
+        Set<String> terms = Tokenizer.tokenize(doctorName);
+        terms.addAll(Tokenizer.tokenize(reason));
+        terms.add(USER_TERM_PREFIX + userId);
+        return terms;
+    }
+
+    private static int docId(Long appointmentId) {
+        return Math.toIntExact(appointmentId);
+    }
+}
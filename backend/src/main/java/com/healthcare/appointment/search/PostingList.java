@@ -0,0 +1,214 @@
+package com.healthcare.appointment.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of document ids, stored in blocks of up to {@value #BLOCK_SIZE} ids. Each block
+ * keeps its first id and the variable-length encoded gaps after it; the blocks' last ids act
+ * as skip pointers. Appending in ascending order (the normal case for new appointments) is
+ * O(1). Out-of-order inserts, removals and lookups binary-search the skip pointers and
+ * decode a single block.
+ */
+public class PostingList {
+
+    static final int BLOCK_SIZE = 128;
+
+    private static final class Block {
+        int first;
+        int count;
+        byte[] gaps = new byte[16];
+        int length; // bytes of gaps in use
+
+        int[] decode(int[] into) {
+            int value = first;
+            into[0] = value;
+            int offset = 0;
+            for (int i = 1; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = gaps[offset++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value += gap;
+                into[i] = value;
+            }
+            return into;
+        }
+
+        void encode(int[] ids, int from, int to) {
+            first = ids[from];
+            length = 0;
+            count = 1;
+            for (int i = from + 1; i < to; i++) {
+                appendGap(ids[i] - ids[i - 1]);
+            }
+        }
+
+        void appendGap(int gap) {
+            if (length + 5 > gaps.length) {
+                gaps = Arrays.copyOf(gaps, gaps.length * 2);
+            }
+            while ((gap & ~0x7F) != 0) {
+                gaps[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            gaps[length++] = (byte) gap;
+            count++;
+        }
+    }
+
+    private Block[] blocks = new Block[1];
+    private int[] lastIds = new int[1]; // skip pointers: last id of each block
+    private int blockCount;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(int id) {
+        if (blockCount == 0 || id > lastIds[blockCount - 1]) {
+            append(id);
+            return;
+        }
+        int index = blockFor(id);
+        Block block = blocks[index];
+        int[] ids = block.decode(new int[block.count + 1]);
+        int pos = Arrays.binarySearch(ids, 0, block.count, id);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        System.arraycopy(ids, pos, ids, pos + 1, block.count - pos);
+        ids[pos] = id;
+        int count = block.count + 1;
+        size++;
+
+        // Split full blocks in half so later inserts stay block-local
+        if (count > BLOCK_SIZE) {
+            int half = count / 2;
+            Block tail = new Block();
+            block.encode(ids, 0, half);
+            tail.encode(ids, half, count);
+            insertBlock(index + 1, tail, ids[count - 1]);
+            lastIds[index] = ids[half - 1];
+        } else {
+            block.encode(ids, 0, count);
+            lastIds[index] = ids[count - 1];
+        }
+    }
+
+    public boolean remove(int id) {
+        if (blockCount == 0 || id > lastIds[blockCount - 1]) {
+            return false;
+        }
+        int index = blockFor(id);
+        Block block = blocks[index];
+        int[] ids = block.decode(new int[block.count]);
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return false;
+        }
+        size--;
+        int count = block.count - 1;
+        if (count == 0) {
+            removeBlock(index);
+            return true;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, count - pos);
+        block.encode(ids, 0, count);
+        lastIds[index] = ids[count - 1];
+        return true;
+    }
+
+    public boolean contains(int id) {
+        return probe().contains(id);
+    }
+
+    public int[] toArray() {
+        int[] ids = new int[size];
+        int[] buffer = new int[BLOCK_SIZE];
+        int n = 0;
+        for (int i = 0; i < blockCount; i++) {
+            Block block = blocks[i];
+            block.decode(buffer);
+            System.arraycopy(buffer, 0, ids, n, block.count);
+            n += block.count;
+        }
+        return ids;
+    }
+
+    /**
+     * Membership lookups that reuse the last decoded block, so probing candidates that
+     * fall close together decodes each block once. Valid until the list is next modified.
+     */
+    public Probe probe() {
+        return new Probe();
+    }
+
+    public final class Probe {
+        private final int[] buffer = new int[BLOCK_SIZE];
+        private int decodedIndex = -1;
+
+        public boolean contains(int id) {
+            if (blockCount == 0 || id > lastIds[blockCount - 1]) {
+                return false;
+            }
+            int index = blockFor(id);
+            Block block = blocks[index];
+            if (id < block.first) {
+                return false;
+            }
+            if (index != decodedIndex) {
+                block.decode(buffer);
+                decodedIndex = index;
+            }
+            return Arrays.binarySearch(buffer, 0, block.count, id) >= 0;
+        }
+    }
+
+    private void append(int id) {
+        if (blockCount > 0 && blocks[blockCount - 1].count < BLOCK_SIZE) {
+            blocks[blockCount - 1].appendGap(id - lastIds[blockCount - 1]);
+            lastIds[blockCount - 1] = id;
+        } else {
+            Block block = new Block();
+            block.first = id;
+            block.count = 1;
+            insertBlock(blockCount, block, id);
+        }
+        size++;
+    }
+
+    // First block whose last id is >= id; callers ensure id <= the list's last id
+    private int blockFor(int id) {
+        int pos = Arrays.binarySearch(lastIds, 0, blockCount, id);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    private void insertBlock(int index, Block block, int lastId) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            lastIds = Arrays.copyOf(lastIds, blockCount * 2);
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        System.arraycopy(lastIds, index, lastIds, index + 1, blockCount - index);
+        blocks[index] = block;
+        lastIds[index] = lastId;
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        System.arraycopy(lastIds, index + 1, lastIds, index, blockCount - index - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+}
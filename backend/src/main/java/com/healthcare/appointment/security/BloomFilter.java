@@ -0,0 +1,66 @@
+package com.healthcare.appointment.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. False positives must be confirmed by the caller;
+ * a negative answer is always exact.
+ */
+class BloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray bits;
+    private final long mask;
+
+    BloomFilter(int numBits) {
+        int size = Integer.highestOneBit(Math.max(64, numBits - 1)) << 1; // Power of two
+        this.bits = new AtomicLongArray(size >>> 6);
+        this.mask = size - 1;
+    }
+
+    void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & flag) == 0 && !bits.compareAndSet(word, current, current | flag)) {
+                // Retry until set by us or someone else
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a, finalized with a mixer so the low bits are usable directly
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,5 +1,6 @@
 package com.healthcare.appointment.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +18,11 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final TokenDenylist tokenDenylist;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TokenDenylist tokenDenylist) {
         this.tokenProvider = tokenProvider;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Override
@@ -32,10 +35,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                String username = tokenProvider.getUsernameFromToken(token);
+                // Parse once; signature and expiry are already checked by the parser
+                Claims claims = tokenProvider.getAllClaimsFromToken(token);
+                String username = claims.getSubject();
                 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    if (tokenProvider.validateToken(token, username)) {
+                    if (!tokenDenylist.isRevoked(claims.getId(), claims.get("userId", Long.class),
+                            claims.getIssuedAt(), claims.getExpiration())) {
                         UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
                                 username, 
@@ -0,0 +1,143 @@
+package com.healthcare.appointment.security;
+
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.config.JwtConfig;
+import com.healthcare.appointment.model.RevokedToken;
+import com.healthcare.appointment.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWTs. Individually revoked tokens are kept in one Bloom filter per expiry bucket
+ * plus an exact set that confirms positive hits; a bucket is dropped as soon as every token
+ * in it has expired anyway. User-wide revocations revoke every token issued before a cutoff.
+ * All revocations are persisted and reloaded at startup, and pushed to the other cluster nodes.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+    private static final String REVOCATION_TOPIC = "token-revoked";
+
+    private static final class Revocation implements Serializable {
+        final String jti; // null for user-wide revocations
+        final Long userId;
+        final long millis; // token expiry, or the user's cutoff
+
+        Revocation(String jti, Long userId, long millis) {
+            this.jti = jti;
+            this.userId = userId;
+            this.millis = millis;
+        }
+    }
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtConfig jwtConfig;
+    private final ClusterCoordinator clusterCoordinator;
+    private final Map<Long, BloomFilter> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedJtis = new ConcurrentHashMap<>(); // jti -> expiry millis
+    private final Map<Long, Long> userCutoffs = new ConcurrentHashMap<>(); // userId -> cutoff millis
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository, JwtConfig jwtConfig,
+                         ClusterCoordinator clusterCoordinator) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtConfig = jwtConfig;
+        this.clusterCoordinator = clusterCoordinator;
+        clusterCoordinator.subscribe(REVOCATION_TOPIC, message -> apply((Revocation) message));
+    }
+
+    @PostConstruct
+    public void load() {
+        for (RevokedToken revoked : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            if (revoked.getJti() != null) {
+                remember(revoked.getJti(), toMillis(revoked.getExpiresAt()));
+            } else {
+                userCutoffs.merge(revoked.getUserId(), toMillis(revoked.getRevokedAt()), Math::max);
+            }
+        }
+        logger.info("Token denylist loaded: {} tokens, {} user-wide revocations", revokedJtis.size(), userCutoffs.size());
+    }
+
+    public boolean isRevoked(String jti, Long userId, Date issuedAt, Date expiration) {
+        if (!userCutoffs.isEmpty() && userId != null && issuedAt != null) {
+            Long cutoff = userCutoffs.get(userId);
+            if (cutoff != null && issuedAt.getTime() < cutoff) {
+                return true;
+            }
+        }
+        if (jti == null || expiration == null) {
+            return false;
+        }
+        BloomFilter filter = buckets.get(bucketOf(expiration.getTime()));
+        return filter != null && filter.mightContain(jti) && revokedJtis.containsKey(jti);
+    }
+
+    public void revoke(String jti, Long userId, Date expiration) {
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(jti);
+        revoked.setUserId(userId);
+        revoked.setRevokedAt(LocalDateTime.now());
+        revoked.setExpiresAt(toLocalDateTime(expiration.getTime()));
+        revokedTokenRepository.save(revoked);
+        remember(jti, expiration.getTime());
+        clusterCoordinator.broadcast(REVOCATION_TOPIC, new Revocation(jti, userId, expiration.getTime()));
+    }
+
+    public void revokeAllForUser(Long userId) {
+        // JWT iat has second precision; tokens issued earlier within the same second stay valid
+        long cutoff = System.currentTimeMillis() / 1000 * 1000;
+        RevokedToken revoked = new RevokedToken();
+        revoked.setUserId(userId);
+        revoked.setRevokedAt(toLocalDateTime(cutoff));
+        revoked.setExpiresAt(toLocalDateTime(cutoff + jwtConfig.getExpiration()));
+        revokedTokenRepository.save(revoked);
+        userCutoffs.merge(userId, cutoff, Math::max);
+        clusterCoordinator.broadcast(REVOCATION_TOPIC, new Revocation(null, userId, cutoff));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.denylist.bucket-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        buckets.keySet().removeIf(bucket -> (bucket + 1) * jwtConfig.getDenylistBucketMillis() < now);
+        revokedJtis.values().removeIf(expiry -> expiry < now);
+        userCutoffs.values().removeIf(cutoff -> cutoff + jwtConfig.getExpiration() < now);
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private void apply(Revocation revocation) {
+        if (revocation.jti != null) {
+            remember(revocation.jti, revocation.millis);
+        } else {
+            userCutoffs.merge(revocation.userId, revocation.millis, Math::max);
+        }
+    }
+
+    private void remember(String jti, long expiryMillis) {
+        revokedJtis.put(jti, expiryMillis);
+        buckets.computeIfAbsent(bucketOf(expiryMillis), b -> new BloomFilter(jwtConfig.getDenylistBitsPerBucket()))
+                .add(jti);
+    }
+
+    private long bucketOf(long expiryMillis) {
+        return expiryMillis / jwtConfig.getDenylistBucketMillis();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,96 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.config.ArchiveConfig;
+import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.model.ArchivedAppointment;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Lazy(false) // @Scheduled methods are only registered once the bean exists
+public class AppointmentArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ArchiveConfig archiveConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterCoordinator clusterCoordinator;
+
+    public AppointmentArchiver(AppointmentRepository appointmentRepository,
+                               ArchivedAppointmentRepository archivedAppointmentRepository,
+                               ArchiveConfig archiveConfig,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               ClusterCoordinator clusterCoordinator) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.archiveConfig = archiveConfig;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clusterCoordinator = clusterCoordinator;
+    }
+
+    @Scheduled(initialDelayString = "${archive.initial-delay-ms:60000}", fixedDelayString = "${archive.interval-ms:3600000}")
+    public void archiveHistory() {
+        if (!clusterCoordinator.isLocalOwner("archiver")) {
+            return; // Concurrent runs on several nodes would race on the same rows
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveConfig.getHorizonDays());
+        int total = 0;
+        int moved;
+        do {
+            // Each batch is its own short transaction so bookings never wait on a whole run
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == archiveConfig.getBatchSize() && pause());
+
+        if (total > 0) {
+            logger.info("Archived {} appointments older than {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // Row locks held until commit: the copies below are the rows that get deleted
+        List<Appointment> batch = appointmentRepository.findByAppointmentDateTimeBeforeOrderByAppointmentDateTimeAsc(
+                cutoff, PageRequest.of(0, archiveConfig.getBatchSize()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        archivedAppointmentRepository.saveAll(batch.stream()
+                .map(a -> new ArchivedAppointment(a, archivedAt))
+                .collect(Collectors.toList()));
+        appointmentRepository.deleteAllInBatch(batch);
+        for (Appointment appointment : batch) {
+            eventPublisher.publishEvent(new AppointmentChangedEvent(AppointmentService.mapToResponse(appointment), null));
+        }
+        return batch.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(archiveConfig.getBatchPauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.dto.AppointmentResponse;
+
+import java.io.Serializable;
+
+/**
+ * Published by appointment mutations. {@code previous} is null for new appointments,
+ * {@code current} is null when the appointment left the hot table (e.g. archived).
+ * Events relayed from other cluster nodes are {@code remote} and published outside any
+ * transaction, so listeners that must see them use {@code fallbackExecution}.
+ */
+public class AppointmentChangedEvent implements Serializable {
+
+    private final AppointmentResponse previous;
+    private final AppointmentResponse current;
+    private final boolean remote;
+
+    public AppointmentChangedEvent(AppointmentResponse previous, AppointmentResponse current) {
+        this(previous, current, false);
+    }
+
+    private AppointmentChangedEvent(AppointmentResponse previous, AppointmentResponse current, boolean remote) {
+        this.previous = previous;
+        this.current = current;
+        this.remote = remote;
+    }
+
+    public AppointmentChangedEvent asRemote() {
+        return new AppointmentChangedEvent(previous, current, true);
+    }
+
+    public AppointmentResponse getPrevious() {
+        return previous;
+    }
+
+    public AppointmentResponse getCurrent() {
+        return current;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
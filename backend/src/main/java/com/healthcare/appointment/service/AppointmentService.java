@@ -1,35 +1,127 @@
 package com.healthcare.appointment.service;
 
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.config.CoalescingConfig;
 import com.healthcare.appointment.dto.AppointmentRequest;
 import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.dto.CoalescingStats;
 import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.model.ArchivedAppointment;
 import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import com.healthcare.appointment.search.AppointmentSearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Lazy(false)
 public class AppointmentService {
 
+    private static final String ACTIVE_SLOT_CONSTRAINT = "uk_appointments_active_slot";
+
     private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentSearchIndex searchIndex;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterCoordinator clusterCoordinator;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeSequence changeSequence;
+
+    // Identical concurrent reads share one query
+    private final SingleFlight<String, List<AppointmentResponse>> userAppointmentsFlight;
+    private final SingleFlight<Long, Optional<AppointmentResponse>> appointmentByIdFlight;
 
-    public AppointmentService(AppointmentRepository appointmentRepository) {
+    public AppointmentService(AppointmentRepository appointmentRepository,
+                              ArchivedAppointmentRepository archivedAppointmentRepository,
+                              AppointmentSearchIndex searchIndex,
+                              WaitlistService waitlistService,
+                              ApplicationEventPublisher eventPublisher,
+                              CoalescingConfig coalescingConfig,
+                              ClusterCoordinator clusterCoordinator,
+                              TransactionTemplate transactionTemplate,
+                              ChangeSequence changeSequence) {
         this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.searchIndex = searchIndex;
+        this.waitlistService = waitlistService;
+        this.eventPublisher = eventPublisher;
+        this.clusterCoordinator = clusterCoordinator;
+        this.transactionTemplate = transactionTemplate;
+        this.changeSequence = changeSequence;
+        this.userAppointmentsFlight = new SingleFlight<>("userAppointments", coalescingConfig.getTimeoutMillis());
+        this.appointmentByIdFlight = new SingleFlight<>("appointmentById", coalescingConfig.getTimeoutMillis());
+    }
+
+    // Bookings for one doctor run on that doctor's owner node, one at a time, each in its own transaction
+    @PostConstruct
+    public void registerBookingHandler() {
+        clusterCoordinator.registerCommandHandler(command -> {
+            try {
+                return transactionTemplate.execute(status -> executeBooking((BookingCommand) command));
+            } catch (DataIntegrityViolationException e) {
+                // Two owners during a membership change: the slot check passed on both, the constraint did not
+                if (isActiveSlotConflict(e)) {
+                    throw new IllegalArgumentException("Doctor is already booked at this time");
+                }
+                throw e;
+            }
+        });
     }
 
-    @Transactional
     public AppointmentResponse createAppointment(Long userId, AppointmentRequest request) {
+        return (AppointmentResponse) clusterCoordinator.executeOnOwner(request.getDoctorName(),
+                BookingCommand.create(userId, request));
+    }
+
+    public AppointmentResponse updateAppointment(Long appointmentId, Long userId, AppointmentRequest request) {
+        return (AppointmentResponse) clusterCoordinator.executeOnOwner(request.getDoctorName(),
+                BookingCommand.update(appointmentId, userId, request));
+    }
+
+    public void cancelAppointment(Long appointmentId, Long userId) {
+        // Freeing the slot may book it for the waitlist, so it goes through the doctor's owner too
+        String doctorName = appointmentRepository.findById(appointmentId)
+                .map(Appointment::getDoctorName)
+                .orElseThrow(() -> new RuntimeException("Appointment not found"));
+        clusterCoordinator.executeOnOwner(doctorName, BookingCommand.cancel(appointmentId, userId));
+    }
+
+    private AppointmentResponse executeBooking(BookingCommand command) {
+        switch (command.getType()) {
+            case CREATE:
+                return doCreateAppointment(command.getUserId(), command.getRequest());
+            case UPDATE:
+                return doUpdateAppointment(command.getAppointmentId(), command.getUserId(), command.getRequest());
+            case CANCEL:
+                doCancelAppointment(command.getAppointmentId(), command.getUserId());
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown booking command: " + command.getType());
+        }
+    }
+
+    private AppointmentResponse doCreateAppointment(Long userId, AppointmentRequest request) {
         // Validate appointment time is in the future
         if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Appointment time must be in the future");
         }
 
         // Check if doctor is already booked at this time
-        if (appointmentRepository.existsByAppointmentDateTimeAndDoctorName(
-                request.getAppointmentDateTime(), request.getDoctorName())) {
+        if (isSlotTaken(request.getDoctorName(), request.getAppointmentDateTime())) {
             throw new IllegalArgumentException("Doctor is already booked at this time");
         }
 
@@ -38,20 +130,43 @@ public class AppointmentService {
         appointment.setDoctorName(request.getDoctorName());
         appointment.setAppointmentDateTime(request.getAppointmentDateTime());
         appointment.setReason(request.getReason());
+        appointment.setChangeSeq(changeSequence.next());
 
         appointment = appointmentRepository.save(appointment);
-        return mapToResponse(appointment);
+        AppointmentResponse response = mapToResponse(appointment);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(null, response));
+        return response;
     }
 
     public List<AppointmentResponse> getUserAppointments(Long userId) {
-        return appointmentRepository.findByUserId(userId)
+        return getUserAppointments(userId, false);
+    }
+
+    public List<AppointmentResponse> getUserAppointments(Long userId, boolean includeHistory) {
+        return userAppointmentsFlight.execute(userId + ":" + includeHistory,
+                () -> loadUserAppointments(userId, includeHistory));
+    }
+
+    private List<AppointmentResponse> loadUserAppointments(Long userId, boolean includeHistory) {
+        List<AppointmentResponse> appointments = appointmentRepository.findByUserId(userId)
                 .stream()
-                .map(this::mapToResponse)
+                .map(AppointmentService::mapToResponse)
                 .collect(Collectors.toList());
+
+        // Archived history lives in a separate table and is only read on request
+        if (includeHistory) {
+            archivedAppointmentRepository.findByUserId(userId)
+                    .stream()
+                    .map(AppointmentService::mapToResponse)
+                    .forEach(appointments::add);
+        }
+        // The list may be handed to several callers
+        return Collections.unmodifiableList(appointments);
     }
 
     public AppointmentResponse getAppointmentById(Long appointmentId, Long userId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        AppointmentResponse appointment = appointmentByIdFlight.execute(appointmentId,
+                () -> appointmentRepository.findById(appointmentId).map(AppointmentService::mapToResponse))
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
         // Security: User can only access their own appointments
@@ -59,11 +174,10 @@ public class AppointmentService {
             throw new RuntimeException("Access denied: You can only access your own appointments");
         }
 
-        return mapToResponse(appointment);
+        return appointment;
     }
 
-    @Transactional
-    public AppointmentResponse updateAppointment(Long appointmentId, Long userId, AppointmentRequest request) {
+    private AppointmentResponse doUpdateAppointment(Long appointmentId, Long userId, AppointmentRequest request) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
@@ -78,8 +192,7 @@ public class AppointmentService {
         }
 
         // Check if doctor is already booked at this time (excluding current appointment)
-        if (appointmentRepository.existsByAppointmentDateTimeAndDoctorName(
-                request.getAppointmentDateTime(), request.getDoctorName())) {
+        if (isSlotTaken(request.getDoctorName(), request.getAppointmentDateTime())) {
             // Check if it's the same appointment
             Appointment existing = appointmentRepository.findByUserId(userId)
                     .stream()
@@ -93,16 +206,19 @@ public class AppointmentService {
             }
         }
 
+        AppointmentResponse previous = mapToResponse(appointment);
         appointment.setDoctorName(request.getDoctorName());
         appointment.setAppointmentDateTime(request.getAppointmentDateTime());
         appointment.setReason(request.getReason());
+        appointment.setChangeSeq(changeSequence.next());
 
         appointment = appointmentRepository.save(appointment);
-        return mapToResponse(appointment);
+        AppointmentResponse response = mapToResponse(appointment);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(previous, response));
+        return response;
     }
 
-    @Transactional
-    public void cancelAppointment(Long appointmentId, Long userId) {
+    private void doCancelAppointment(Long appointmentId, Long userId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
@@ -111,12 +227,80 @@ public class AppointmentService {
             throw new RuntimeException("Access denied: You can only cancel your own appointments");
         }
 
+        AppointmentResponse previous = mapToResponse(appointment);
+        boolean wasScheduled = "SCHEDULED".equals(appointment.getStatus());
         appointment.setStatus("CANCELLED");
-        appointmentRepository.save(appointment);
+        appointment.setChangeSeq(changeSequence.next());
+        appointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(new AppointmentChangedEvent(previous, mapToResponse(appointment)));
+
+        // Hand the freed slot to the waitlist in the same transaction
+        if (wasScheduled) {
+            waitlistService.fillFreedSlot(appointment.getDoctorName(), appointment.getAppointmentDateTime(), userId);
+        }
+    }
+
+    public List<CoalescingStats> getCoalescingStats() {
+        return List.of(userAppointmentsFlight.getStats(), appointmentByIdFlight.getStats());
+    }
+
+    // Writes detach in-flight reads they affect, so later readers cannot pick up a pre-commit result
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        for (AppointmentResponse appointment : new AppointmentResponse[] { event.getPrevious(), event.getCurrent() }) {
+            if (appointment != null) {
+                userAppointmentsFlight.forget(appointment.getUserId() + ":false");
+                userAppointmentsFlight.forget(appointment.getUserId() + ":true");
+                appointmentByIdFlight.forget(appointment.getId());
+            }
+        }
+    }
+
+    // Booking path only: never coalesced, a shared answer could predate a booking that just committed
+    private boolean isSlotTaken(String doctorName, LocalDateTime dateTime) {
+        return appointmentRepository.existsByAppointmentDateTimeAndDoctorNameAndStatusNot(
+                dateTime, doctorName, "CANCELLED");
+    }
+
+    private static boolean isActiveSlotConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(ACTIVE_SLOT_CONSTRAINT);
+    }
+
+    public List<AppointmentResponse> searchAppointments(Long userId, String query, int limit) {
+        List<Long> ids = searchIndex.search(userId, query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the index ranking; re-check ownership against the stored rows
+        Map<Long, Appointment> byId = appointmentRepository.findAllById(ids)
+                .stream()
+                .filter(a -> a.getUserId().equals(userId))
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(a -> a != null)
+                .map(AppointmentService::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    static AppointmentResponse mapToResponse(Appointment appointment) {
+        AppointmentResponse response = new AppointmentResponse(
+                appointment.getId(),
+                appointment.getUserId(),
+                appointment.getDoctorName(),
+                appointment.getAppointmentDateTime(),
+                appointment.getReason(),
+                appointment.getStatus(),
+                appointment.getCreatedAt()
+        );
+        response.setChangeSeq(appointment.getChangeSeq());
+        return response;
     }
 
-    private AppointmentResponse mapToResponse(Appointment appointment) {
-        return new AppointmentResponse(
+    static AppointmentResponse mapToResponse(ArchivedAppointment appointment) {
+        AppointmentResponse response = new AppointmentResponse(
                 appointment.getId(),
                 appointment.getUserId(),
                 appointment.getDoctorName(),
@@ -125,6 +309,8 @@ public class AppointmentService {
                 appointment.getStatus(),
                 appointment.getCreatedAt()
         );
+        response.setChangeSeq(appointment.getChangeSeq());
+        return response;
     }
 }
 
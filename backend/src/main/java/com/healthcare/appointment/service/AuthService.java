@@ -6,6 +6,8 @@ import com.healthcare.appointment.dto.RegisterRequest;
 import com.healthcare.appointment.model.User;
 import com.healthcare.appointment.repository.UserRepository;
 import com.healthcare.appointment.security.JwtTokenProvider;
+import com.healthcare.appointment.security.TokenDenylist;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,11 +18,14 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final TokenDenylist tokenDenylist;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtTokenProvider tokenProvider) {
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtTokenProvider tokenProvider,
+                       TokenDenylist tokenDenylist) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenProvider = tokenProvider;
+        this.tokenDenylist = tokenDenylist;
     }
 
     @Transactional
@@ -57,5 +62,27 @@ public class AuthService {
         String token = tokenProvider.generateToken(user.getUsername(), user.getId());
         return new AuthResponse(token, user.getUsername(), user.getId());
     }
-}
 
+    public void logout(String token) {
+        Claims claims = getUnrevokedClaims(token);
+        if (claims.getId() == null) {
+            throw new RuntimeException("Token cannot be revoked individually");
+        }
+        tokenDenylist.revoke(claims.getId(), claims.get("userId", Long.class), claims.getExpiration());
+    }
+
+    // Revokes every token issued to the user so far, e.g. after a password change
+    public void logoutEverywhere(String token) {
+        Claims claims = getUnrevokedClaims(token);
+        tokenDenylist.revokeAllForUser(claims.get("userId", Long.class));
+    }
+
+    private Claims getUnrevokedClaims(String token) {
+        Claims claims = tokenProvider.getAllClaimsFromToken(token);
+        if (tokenDenylist.isRevoked(claims.getId(), claims.get("userId", Long.class),
+                claims.getIssuedAt(), claims.getExpiration())) {
+            throw new RuntimeException("Token has been revoked");
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,53 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.dto.AppointmentRequest;
+
+import java.io.Serializable;
+
+/**
+ * A booking-path mutation, executed on the node that owns the doctor's schedule.
+ */
+class BookingCommand implements Serializable {
+
+    enum Type { CREATE, UPDATE, CANCEL }
+
+    private final Type type;
+    private final Long userId;
+    private final Long appointmentId;
+    private final AppointmentRequest request;
+
+    private BookingCommand(Type type, Long userId, Long appointmentId, AppointmentRequest request) {
+        this.type = type;
+        this.userId = userId;
+        this.appointmentId = appointmentId;
+        this.request = request;
+    }
+
+    static BookingCommand create(Long userId, AppointmentRequest request) {
+        return new BookingCommand(Type.CREATE, userId, null, request);
+    }
+
+    static BookingCommand update(Long appointmentId, Long userId, AppointmentRequest request) {
+        return new BookingCommand(Type.UPDATE, userId, appointmentId, request);
+    }
+
+    static BookingCommand cancel(Long appointmentId, Long userId) {
+        return new BookingCommand(Type.CANCEL, userId, appointmentId, null);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    Long getAppointmentId() {
+        return appointmentId;
+    }
+
+    AppointmentRequest getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,227 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.model.User;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import com.healthcare.appointment.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's appointments as an iCalendar (RFC 5545) document, one keyset page at a time,
+ * so the feed never sits in memory as a whole. With a sync token only appointments changed
+ * after it are written; cancelled ones carry STATUS:CANCELLED so clients drop them.
+ * <p>
+ * Archived appointments stay in the feed. They keep the change number they had in the hot
+ * table, so a delta client that already holds them sees nothing new and keeps them, and a
+ * full feed still lists them. Each page reads both tables in one snapshot, so a row the
+ * archiver moves between the two reads is neither lost nor written twice.
+ * <p>
+ * Calendar apps that cannot send a bearer token subscribe through a per-user secret URL. Only
+ * a hash of the secret is stored; issuing a new one or revoking it stops the old URL working.
+ */
+@Service
+public class CalendarFeedService {
+
+    private static final int PAGE_SIZE = 500;
+    private static final Comparator<AppointmentResponse> FEED_ORDER =
+            Comparator.comparing(AppointmentResponse::getChangeSeq).thenComparing(AppointmentResponse::getId);
+    private static final long APPOINTMENT_MINUTES = 30;
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final UserRepository userRepository;
+    private final ChangeSequence changeSequence;
+    private final TransactionTemplate snapshotTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public CalendarFeedService(AppointmentRepository appointmentRepository,
+                               ArchivedAppointmentRepository archivedAppointmentRepository,
+                               UserRepository userRepository,
+                               ChangeSequence changeSequence,
+                               PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.userRepository = userRepository;
+        this.changeSequence = changeSequence;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    public long currentSyncToken() {
+        return changeSequence.syncToken();
+    }
+
+    // Returns the new secret; it is not stored and cannot be shown again
+    @Transactional
+    public String issueSubscriptionSecret(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        user.setCalendarFeedSecretHash(hash(secret));
+        userRepository.save(user);
+        return secret;
+    }
+
+    @Transactional
+    public void revokeSubscriptionSecret(Long userId) {
+        userRepository.findById(userId).ifPresent(user -> {
+            user.setCalendarFeedSecretHash(null);
+            userRepository.save(user);
+        });
+    }
+
+    public Optional<Long> findSubscriber(String secret) {
+        return userRepository.findByCalendarFeedSecretHash(hash(secret)).map(User::getId);
+    }
+
+    /**
+     * Writes appointments with {@code afterToken < changeSeq <= upToToken}. Pass -1 as
+     * {@code afterToken} for the full feed.
+     */
+    public void writeFeed(Long userId, long afterToken, long upToToken, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String stamp = formatUtc(LocalDateTime.now());
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:-//Healthcare Appointment System//Appointments//EN");
+        line(writer, "CALSCALE:GREGORIAN");
+        line(writer, "METHOD:PUBLISH");
+        line(writer, "X-WR-CALNAME:My Appointments");
+
+        long afterSeq = afterToken;
+        long afterId = Long.MAX_VALUE;
+        List<AppointmentResponse> page;
+        do {
+            page = readPage(userId, afterSeq, afterId, upToToken);
+            for (AppointmentResponse appointment : page) {
+                writeEvent(writer, appointment, stamp);
+            }
+            if (!page.isEmpty()) {
+                AppointmentResponse lastRow = page.get(page.size() - 1);
+                afterSeq = lastRow.getChangeSeq();
+                afterId = lastRow.getId();
+            }
+            writer.flush();
+        } while (page.size() == PAGE_SIZE);
+
+        line(writer, "END:VCALENDAR");
+        writer.flush();
+    }
+
+    // Next PAGE_SIZE rows after the cursor across the hot and archive tables; short only at the end
+    private List<AppointmentResponse> readPage(Long userId, long afterSeq, long afterId, long upToToken) {
+        PageRequest firstPage = PageRequest.of(0, PAGE_SIZE);
+        return snapshotTemplate.execute(status -> Stream.concat(
+                        appointmentRepository.findChangedForUser(userId, afterSeq, afterId, upToToken, firstPage)
+                                .stream().map(AppointmentService::mapToResponse),
+                        archivedAppointmentRepository.findChangedForUser(userId, afterSeq, afterId, upToToken, firstPage)
+                                .stream().map(AppointmentService::mapToResponse))
+                .sorted(FEED_ORDER)
+                .limit(PAGE_SIZE)
+                .collect(Collectors.toList()));
+    }
+
+    private void writeEvent(Writer writer, AppointmentResponse appointment, String stamp) throws IOException {
+        line(writer, "BEGIN:VEVENT");
+        line(writer, "UID:appointment-" + appointment.getId() + "@healthcare-appointment-system");
+        line(writer, "DTSTAMP:" + stamp);
+        line(writer, "DTSTART:" + formatUtc(appointment.getAppointmentDateTime()));
+        line(writer, "DTEND:" + formatUtc(appointment.getAppointmentDateTime().plusMinutes(APPOINTMENT_MINUTES)));
+        // SEQUENCE must grow with every revision so clients replace their copy
+        line(writer, "SEQUENCE:" + appointment.getChangeSeq());
+        line(writer, "SUMMARY:" + escape("Appointment with " + appointment.getDoctorName()));
+        if (appointment.getReason() != null && !appointment.getReason().isBlank()) {
+            line(writer, "DESCRIPTION:" + escape(appointment.getReason()));
+        }
+        line(writer, "STATUS:" + ("CANCELLED".equals(appointment.getStatus()) ? "CANCELLED" : "CONFIRMED"));
+        line(writer, "END:VEVENT");
+    }
+
+    // Content lines end in CRLF and are folded at 75 octets
+    private static void line(Writer writer, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= 75) {
+            writer.write(content);
+            writer.write("\r\n");
+            return;
+        }
+        int octets = 0;
+        int limit = 75;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = utf8Width(codePoint);
+            if (octets + width > limit) {
+                writer.write("\r\n ");
+                octets = 0;
+                limit = 74; // Continuation lines start with a space
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static int utf8Width(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String formatUtc(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT);
+    }
+}
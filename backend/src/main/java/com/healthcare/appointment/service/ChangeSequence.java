@@ -0,0 +1,159 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Source of {@code Appointment.changeSeq}. Values come from the {@code appointment_change_seq}
+ * database sequence declared in schema.sql, so they are unique and ordered across every node
+ * sharing the database. Each node tracks the values it handed out whose transaction has not
+ * completed yet, plus a lower bound for every allocation still waiting on the database.
+ * <p>
+ * The sync token is computed in two rounds over the members. The first finds the highest
+ * value any member has handed out. Every value up to it was handed out before the second
+ * round starts, so the second round finds it still in flight, or pending above a reported
+ * bound, unless it has completed. The token is the lower of the two results, so every row at
+ * or below it has committed and a delta read cannot skip a row that commits late.
+ */
+@Component
+@Lazy(false) // Peers ask for our in-flight values as soon as we join
+public class ChangeSequence {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeSequence.class);
+    private static final String STATE_TOPIC = "change-seq-state";
+    private static final String SEQUENCE_NAME = "appointment_change_seq";
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterCoordinator clusterCoordinator;
+    private final String nextValueSql;
+
+    // Guarded by this
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private final TreeMap<Long, Integer> pendingFloors = new TreeMap<>();
+    private long highestAllocated;
+
+    private volatile long lastToken;
+
+    public ChangeSequence(AppointmentRepository appointmentRepository,
+                          ArchivedAppointmentRepository archivedAppointmentRepository,
+                          JdbcTemplate jdbcTemplate,
+                          ClusterCoordinator clusterCoordinator,
+                          EntityManagerFactory entityManagerFactory) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterCoordinator = clusterCoordinator;
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        clusterCoordinator.registerHandler(STATE_TOPIC, request -> state());
+    }
+
+    @PostConstruct
+    public void load() {
+        // Every committed value was handed out before this read, so it is a valid high mark to start from
+        long max = Math.max(appointmentRepository.findMaxChangeSeq(), archivedAppointmentRepository.findMaxChangeSeq());
+        synchronized (this) {
+            highestAllocated = Math.max(highestAllocated, max);
+        }
+    }
+
+    // Must run inside the transaction that writes the value
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change values must be allocated inside a transaction");
+        }
+        // The database hands this allocation a value above everything this node already holds
+        long floor;
+        synchronized (this) {
+            floor = highestAllocated + 1;
+            pendingFloors.merge(floor, 1, Integer::sum);
+        }
+        long seq;
+        try {
+            seq = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                unpend(floor);
+            }
+            throw e;
+        }
+        // Swap the bound for the value in one step, so a peer never sees neither
+        synchronized (this) {
+            unpend(floor);
+            inFlight.add(seq);
+            highestAllocated = Math.max(highestAllocated, seq);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(seq);
+            }
+        });
+        return seq;
+    }
+
+    // Highest value below which every row has committed, on every member
+    public long syncToken() {
+        try {
+            long token = 0;
+            for (String member : clusterCoordinator.getMembers()) {
+                token = Math.max(token, stateOf(member)[0]);
+            }
+            // Ask the current members again: a node that handed out a value up to the token is among them
+            for (String member : clusterCoordinator.getMembers()) {
+                token = Math.min(token, stateOf(member)[1] - 1);
+            }
+            lastToken = token;
+            return token;
+        } catch (IllegalStateException e) {
+            // Values the member allocates from now on are above the last token
+            log.warn("Could not read change values from every member: {}", e.getMessage());
+            return lastToken;
+        }
+    }
+
+    private long[] stateOf(String member) {
+        if (member.equals(clusterCoordinator.getLocalNodeId())) {
+            return state();
+        }
+        return (long[]) clusterCoordinator.request(member, STATE_TOPIC, "");
+    }
+
+    // { highest value handed out, lowest value that may still be in flight (MAX_VALUE if none) }
+    private synchronized long[] state() {
+        long lowest = Long.MAX_VALUE;
+        if (!inFlight.isEmpty()) {
+            lowest = inFlight.first();
+        }
+        if (!pendingFloors.isEmpty()) {
+            lowest = Math.min(lowest, pendingFloors.firstKey());
+        }
+        return new long[] { highestAllocated, lowest };
+    }
+
+    private synchronized void release(long seq) {
+        inFlight.remove(seq);
+    }
+
+    // Caller holds the monitor
+    private void unpend(long floor) {
+        pendingFloors.computeIfPresent(floor, (key, count) -> count == 1 ? null : count - 1);
+    }
+}
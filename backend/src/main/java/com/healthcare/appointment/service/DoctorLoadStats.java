@@ -0,0 +1,226 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.config.StatsConfig;
+import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.dto.DoctorDayStats;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Booked/cancelled counters per doctor and day, maintained from appointment changes instead
+ * of GROUP BY queries. Doctor names are interned to int ids and packed with the epoch day
+ * into one long key, so a lookup is a single hash probe. A per-day set of doctor ids keeps
+ * {@link #getDay} proportional to the doctors that had appointments that day.
+ * Archived appointments still count for their day, so archiving is not a change here.
+ * <p>
+ * The counters are not idempotent, and peers relay their changes while the startup rebuild
+ * reads the database. Changes that arrive before the rebuild has finished are held back.
+ * The rebuild reads the counts and the change numbers in one snapshot, taken after a sync
+ * token: changes up to the token are in the snapshot, changes above the highest number in
+ * it are not, and a change in between is in it only if its row has that number or a later
+ * one. Every relayed change, held back or late, is checked against that record, so none is
+ * lost or counted twice. Bulk loaders that bypass events report rows through
+ * {@link #recordInserted}.
+ */
+@Component
+@Lazy(false)
+public class DoctorLoadStats implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorLoadStats.class);
+
+    private static final class DayCounters {
+        final LongAdder booked = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ChangeSequence changeSequence;
+    private final StatsConfig statsConfig;
+    private final TransactionTemplate snapshotTemplate;
+    private final Map<String, Integer> doctorIds = new ConcurrentHashMap<>();
+    private final List<String> doctorNames = new CopyOnWriteArrayList<>();
+    private final Map<Long, DayCounters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Integer>> doctorsByDay = new ConcurrentHashMap<>();
+
+    // Guarded by pendingChanges; the snapshot fields are written once, before built is set
+    private final List<AppointmentChangedEvent> pendingChanges = new ArrayList<>();
+    private boolean built;
+    private long snapshotToken;
+    private long snapshotHighest;
+    private Map<Long, Long> snapshotChangeSeqs = Collections.emptyMap();
+
+    public DoctorLoadStats(AppointmentRepository appointmentRepository,
+                           ArchivedAppointmentRepository archivedAppointmentRepository,
+                           ChangeSequence changeSequence,
+                           StatsConfig statsConfig,
+                           PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.changeSequence = changeSequence;
+        this.statsConfig = statsConfig;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        // Every change up to the token has committed, so the snapshot below contains it
+        long token = changeSequence.syncToken();
+        snapshotTemplate.executeWithoutResult(status -> {
+            long highest = Math.max(appointmentRepository.findMaxChangeSeq(), archivedAppointmentRepository.findMaxChangeSeq());
+            addCounts(appointmentRepository.countByDoctorDayAndStatus());
+            addCounts(archivedAppointmentRepository.countByDoctorDayAndStatus());
+            Map<Long, Long> changeSeqs = new HashMap<>();
+            putChangeSeqs(changeSeqs, appointmentRepository.findChangeSeqsBetween(token, highest));
+            putChangeSeqs(changeSeqs, archivedAppointmentRepository.findChangeSeqsBetween(token, highest));
+
+            synchronized (pendingChanges) {
+                snapshotToken = token;
+                snapshotHighest = highest;
+                snapshotChangeSeqs = changeSeqs;
+                built = true;
+                pendingChanges.forEach(this::applyIfNotInSnapshot);
+                pendingChanges.clear();
+            }
+        });
+        logger.info("Doctor load stats rebuilt: {} doctors, {} doctor-days in {} ms",
+                doctorNames.size(), counters.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getCurrent() == null) {
+            return; // Archived: the appointment still counts for its day
+        }
+        synchronized (pendingChanges) {
+            if (!built) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        applyIfNotInSnapshot(event);
+    }
+
+    public void recordInserted(String doctorName, LocalDate date, String status) {
+        add(doctorName, date, status, 1);
+    }
+
+    public DoctorDayStats getDoctorDay(String doctorName, LocalDate date) {
+        Integer doctorId = doctorIds.get(doctorName);
+        DayCounters day = doctorId == null ? null : counters.get(key(doctorId, date));
+        return toStats(doctorName, date, day);
+    }
+
+    public List<DoctorDayStats> getDay(LocalDate date) {
+        Set<Integer> doctors = doctorsByDay.getOrDefault(date.toEpochDay(), Collections.emptySet());
+        List<DoctorDayStats> stats = new ArrayList<>(doctors.size());
+        for (int id : doctors) {
+            stats.add(toStats(doctorNames.get(id), date, counters.get(key(id, date))));
+        }
+        return stats;
+    }
+
+    private void applyIfNotInSnapshot(AppointmentChangedEvent event) {
+        AppointmentResponse previous = event.getPrevious();
+        AppointmentResponse current = event.getCurrent();
+        if (inSnapshot(current)) {
+            return;
+        }
+        if (previous != null) {
+            add(previous.getDoctorName(), previous.getAppointmentDateTime().toLocalDate(), previous.getStatus(), -1);
+        }
+        add(current.getDoctorName(), current.getAppointmentDateTime().toLocalDate(), current.getStatus(), 1);
+    }
+
+    // Change numbers of one row only grow, and archiving keeps the last one
+    private boolean inSnapshot(AppointmentResponse current) {
+        long changeSeq = current.getChangeSeq();
+        if (changeSeq <= snapshotToken) {
+            return true;
+        }
+        if (changeSeq > snapshotHighest) {
+            return false;
+        }
+        Long seen = snapshotChangeSeqs.get(current.getId());
+        return seen != null && seen >= changeSeq;
+    }
+
+    private void addCounts(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            add((String) row[0], (LocalDate) row[1], (String) row[2], ((Number) row[3]).longValue());
+        }
+    }
+
+    private static void putChangeSeqs(Map<Long, Long> changeSeqs, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            changeSeqs.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+    }
+
+    private void add(String doctorName, LocalDate date, String status, long delta) {
+        int doctorId = doctorId(doctorName);
+        long key = key(doctorId, date);
+        DayCounters day = counters.get(key);
+        if (day == null) {
+            day = counters.computeIfAbsent(key, k -> new DayCounters());
+            // Indexed after the counters exist, so getDay never finds a doctor without them
+            doctorsByDay.computeIfAbsent(date.toEpochDay(), d -> new ConcurrentSkipListSet<>()).add(doctorId);
+        }
+        if ("CANCELLED".equals(status)) {
+            day.cancelled.add(delta);
+        } else {
+            day.booked.add(delta); // SCHEDULED and COMPLETED both occupy the slot
+        }
+    }
+
+    private int doctorId(String doctorName) {
+        Integer id = doctorIds.get(doctorName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (doctorNames) {
+            return doctorIds.computeIfAbsent(doctorName, name -> {
+                doctorNames.add(name);
+                return doctorNames.size() - 1;
+            });
+        }
+    }
+
+    private DoctorDayStats toStats(String doctorName, LocalDate date, DayCounters day) {
+        long booked = day == null ? 0 : day.booked.sum();
+        long cancelled = day == null ? 0 : day.cancelled.sum();
+        return new DoctorDayStats(doctorName, date, booked, cancelled, Math.max(0, statsConfig.getSlotsPerDay() - booked));
+    }
+
+    private static long key(int doctorId, LocalDate date) {
+        return ((long) doctorId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+}
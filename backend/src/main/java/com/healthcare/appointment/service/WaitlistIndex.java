@@ -0,0 +1,95 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.model.WaitlistEntry;
+import com.healthcare.appointment.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor interval index over WAITING waitlist entries. Built before the web server
+ * accepts requests, so a cancellation right after startup still finds the waiting patients.
+ */
+@Component
+@Lazy(false)
+public class WaitlistIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistIndex.class);
+    private static final int BUILD_BATCH_SIZE = 5000;
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final Map<String, WaitlistIntervalTree> byDoctor = new ConcurrentHashMap<>();
+
+    public WaitlistIndex(WaitlistEntryRepository waitlistEntryRepository) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        build();
+    }
+
+    private void build() {
+        long lastId = 0;
+        int total = 0;
+        List<WaitlistEntry> batch;
+        do {
+            batch = waitlistEntryRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                    "WAITING", lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (WaitlistEntry entry : batch) {
+                remove(entry); // A peer's relayed change may have indexed it already
+                add(entry);
+                lastId = entry.getId();
+            }
+            total += batch.size();
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        logger.info("Waitlist index built: {} waiting entries for {} doctors", total, byDoctor.size());
+    }
+
+    public void add(WaitlistEntry entry) {
+        WaitlistIntervalTree tree = byDoctor.computeIfAbsent(entry.getDoctorName(), d -> new WaitlistIntervalTree());
+        synchronized (tree) {
+            tree.insert(toEpochSecond(entry.getWindowStart()), toEpochSecond(entry.getWindowEnd()),
+                    entry.getId(), entry.getUserId());
+        }
+    }
+
+    public boolean remove(WaitlistEntry entry) {
+        WaitlistIntervalTree tree = byDoctor.get(entry.getDoctorName());
+        if (tree == null) {
+            return false;
+        }
+        synchronized (tree) {
+            return tree.remove(toEpochSecond(entry.getWindowStart()), entry.getId());
+        }
+    }
+
+    /**
+     * Finds the longest-waiting entry covering the slot and removes it from the index,
+     * so concurrent cancellations never hand the same entry two slots.
+     * Returns the entry id, or null if nobody is waiting for this slot.
+     */
+    public Long claim(String doctorName, LocalDateTime slot, Long excludedUserId) {
+        WaitlistIntervalTree tree = byDoctor.get(doctorName);
+        if (tree == null) {
+            return null;
+        }
+        synchronized (tree) {
+            long id = tree.pollOldestCovering(toEpochSecond(slot), excludedUserId);
+            return id < 0 ? null : id;
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
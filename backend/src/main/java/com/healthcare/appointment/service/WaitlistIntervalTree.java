@@ -0,0 +1,182 @@
+package com.healthcare.appointment.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of waitlist windows ordered by (start, id), augmented with the maximum window
+ * end and minimum entry id of every subtree. Finding the longest-waiting entry whose
+ * window covers an instant skips every subtree that ends too early, starts too late or
+ * only holds younger entries. A lookup costs O(log n) per covering window it has to
+ * examine; the id bound usually stops it after a few, but windows of the excluded user
+ * are still walked. Not thread-safe; callers synchronize per doctor.
+ */
+class WaitlistIntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        final long userId;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left;
+        Node right;
+        long maxEnd;
+        long minId;
+
+        Node(long start, long end, long id, long userId) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.userId = userId;
+            this.maxEnd = end;
+            this.minId = id;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(long start, long end, long id, long userId) {
+        root = insert(root, new Node(start, end, id, userId));
+        size++;
+    }
+
+    boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Returns the smallest id whose window contains {@code instant}, ignoring entries of
+     * {@code excludedUserId}, or -1 if no window covers it.
+     */
+    long findOldestCovering(long instant, long excludedUserId) {
+        Node best = find(root, instant, excludedUserId, null);
+        return best == null ? -1 : best.id;
+    }
+
+    /**
+     * Same as {@link #findOldestCovering} but also removes the entry it returns.
+     */
+    long pollOldestCovering(long instant, long excludedUserId) {
+        Node best = find(root, instant, excludedUserId, null);
+        if (best == null) {
+            return -1;
+        }
+        remove(best.start, best.id);
+        return best.id;
+    }
+
+    private Node find(Node node, long instant, long excludedUserId, Node best) {
+        if (node == null || node.maxEnd < instant || (best != null && node.minId >= best.id)) {
+            return best;
+        }
+        best = find(node.left, instant, excludedUserId, best);
+        if (node.start > instant) {
+            return best; // Everything to the right starts even later
+        }
+        if (node.end >= instant && node.userId != excludedUserId && (best == null || node.id < best.id)) {
+            best = node;
+        }
+        return find(node.right, instant, excludedUserId, best);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(id, node.id);
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.start, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            node = merge(node.left, node.right);
+            if (node == null) {
+                return null;
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        long minId = node.id;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+            minId = Math.min(minId, node.left.minId);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+            minId = Math.min(minId, node.right.minId);
+        }
+        node.maxEnd = maxEnd;
+        node.minId = minId;
+    }
+}
@@ -0,0 +1,211 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.cluster.ClusterCoordinator;
+import com.healthcare.appointment.dto.AppointmentResponse;
+import com.healthcare.appointment.dto.WaitlistRequest;
+import com.healthcare.appointment.dto.WaitlistResponse;
+import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.model.WaitlistEntry;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@Lazy(false)
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+    private static final String WAITLIST_TOPIC = "waitlist-changed";
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final WaitlistIndex waitlistIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterCoordinator clusterCoordinator;
+    private final ChangeSequence changeSequence;
+
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           AppointmentRepository appointmentRepository,
+                           WaitlistIndex waitlistIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           ClusterCoordinator clusterCoordinator,
+                           ChangeSequence changeSequence) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.waitlistIndex = waitlistIndex;
+        this.eventPublisher = eventPublisher;
+        this.clusterCoordinator = clusterCoordinator;
+        this.changeSequence = changeSequence;
+        // Every node indexes every entry; the doctor's owner node is the one that claims them
+        clusterCoordinator.subscribe(WAITLIST_TOPIC, message -> onRemoteChange((Long) message));
+    }
+
+    @Transactional
+    public WaitlistResponse joinWaitlist(Long userId, WaitlistRequest request) {
+        if (!request.getWindowEnd().isAfter(request.getWindowStart())) {
+            throw new IllegalArgumentException("Window end must be after window start");
+        }
+        if (request.getWindowEnd().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Waitlist window must be in the future");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUserId(userId);
+        entry.setDoctorName(request.getDoctorName());
+        entry.setWindowStart(request.getWindowStart());
+        entry.setWindowEnd(request.getWindowEnd());
+        entry.setReason(request.getReason());
+
+        WaitlistEntry saved = waitlistEntryRepository.save(entry);
+        // Only committed entries may be matched against freed slots
+        afterCommit(() -> {
+            waitlistIndex.add(saved);
+            clusterCoordinator.broadcast(WAITLIST_TOPIC, saved.getId());
+        });
+        return mapToResponse(saved);
+    }
+
+    public List<WaitlistResponse> getUserEntries(Long userId) {
+        return waitlistEntryRepository.findByUserId(userId)
+                .stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void leaveWaitlist(Long entryId, Long userId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+
+        // Security: User can only remove their own waitlist entries
+        if (!entry.getUserId().equals(userId)) {
+            throw new RuntimeException("Access denied: You can only cancel your own waitlist entries");
+        }
+
+        if ("WAITING".equals(entry.getStatus())) {
+            entry.setStatus("CANCELLED");
+            waitlistEntryRepository.save(entry);
+            afterCommit(() -> {
+                waitlistIndex.remove(entry);
+                clusterCoordinator.broadcast(WAITLIST_TOPIC, entry.getId());
+            });
+        }
+    }
+
+    /**
+     * Books a freed slot for the longest-waiting matching entry. Must run inside the
+     * transaction that freed the slot, so the cancellation and the new booking commit
+     * or roll back together.
+     */
+    Optional<AppointmentResponse> fillFreedSlot(String doctorName, LocalDateTime slot, Long cancellingUserId) {
+        if (slot.isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+
+        Long entryId;
+        while ((entryId = waitlistIndex.claim(doctorName, slot, cancellingUserId)) != null) {
+            WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElse(null);
+            if (entry == null || !"WAITING".equals(entry.getStatus())) {
+                continue; // Stale index entry, already dropped by the claim
+            }
+            afterRollback(() -> waitlistIndex.add(entry));
+
+            // Same conflict rule as AppointmentService.createAppointment
+            if (appointmentRepository.existsByAppointmentDateTimeAndDoctorNameAndStatusNot(slot, doctorName, "CANCELLED")) {
+                afterCommit(() -> waitlistIndex.add(entry));
+                return Optional.empty();
+            }
+
+            Appointment appointment = new Appointment();
+            appointment.setUserId(entry.getUserId());
+            appointment.setDoctorName(doctorName);
+            appointment.setAppointmentDateTime(slot);
+            appointment.setReason(entry.getReason());
+            appointment.setChangeSeq(changeSequence.next());
+            appointment = appointmentRepository.save(appointment);
+
+            entry.setStatus("BOOKED");
+            entry.setAppointmentId(appointment.getId());
+            waitlistEntryRepository.save(entry);
+            afterCommit(() -> clusterCoordinator.broadcast(WAITLIST_TOPIC, entry.getId()));
+
+            AppointmentResponse response = AppointmentService.mapToResponse(appointment);
+            eventPublisher.publishEvent(new AppointmentChangedEvent(null, response));
+            logger.info("Booked freed slot {} with {} for waitlist entry {}", slot, doctorName, entry.getId());
+            return Optional.of(response);
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.expiry-interval-ms:3600000}")
+    @Transactional
+    public void expireEntries() {
+        if (!clusterCoordinator.isLocalOwner(WAITLIST_TOPIC)) {
+            return; // One node expires for the whole cluster
+        }
+        List<WaitlistEntry> expired = waitlistEntryRepository.findByStatusAndWindowEndBefore("WAITING", LocalDateTime.now());
+        for (WaitlistEntry entry : expired) {
+            entry.setStatus("EXPIRED");
+            waitlistIndex.remove(entry);
+        }
+        waitlistEntryRepository.saveAll(expired);
+        afterCommit(() -> expired.forEach(entry -> clusterCoordinator.broadcast(WAITLIST_TOPIC, entry.getId())));
+    }
+
+    // Peers announce entry ids only; the committed row decides whether it is still waiting
+    private void onRemoteChange(Long entryId) {
+        waitlistEntryRepository.findById(entryId).ifPresent(entry -> {
+            waitlistIndex.remove(entry);
+            if ("WAITING".equals(entry.getStatus())) {
+                waitlistIndex.add(entry);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private WaitlistResponse mapToResponse(WaitlistEntry entry) {
+        return new WaitlistResponse(
+                entry.getId(),
+                entry.getUserId(),
+                entry.getDoctorName(),
+                entry.getWindowStart(),
+                entry.getWindowEnd(),
+                entry.getReason(),
+                entry.getStatus(),
+                entry.getAppointmentId(),
+                entry.getCreatedAt()
+        );
+    }
+}
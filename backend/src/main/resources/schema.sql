@@ -0,0 +1,69 @@
+-- Schema for every profile: the fast profile validates the entities against it, the default
+-- profile runs it before ddl-auto=update. Keep in sync with com.healthcare.appointment.model.
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    calendar_feed_secret_hash VARCHAR(255) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    doctor_name VARCHAR(255) NOT NULL,
+    appointment_date_time TIMESTAMP(6) NOT NULL,
+    reason VARCHAR(255),
+    status VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    change_seq BIGINT DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    active_doctor_name VARCHAR(255) GENERATED ALWAYS AS (CASE WHEN status <> 'CANCELLED' THEN doctor_name END)
+);
+CREATE INDEX IF NOT EXISTS idx_appointments_user_id ON appointments (user_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_date_time ON appointments (appointment_date_time);
+CREATE INDEX IF NOT EXISTS idx_appointments_user_change_seq ON appointments (user_id, change_seq);
+-- One active booking per doctor and time; cancelled rows have no active_doctor_name
+CREATE UNIQUE INDEX IF NOT EXISTS uk_appointments_active_slot ON appointments (active_doctor_name, appointment_date_time);
+
+-- Source of appointments.change_seq, shared by every node (see ChangeSequence)
+CREATE SEQUENCE IF NOT EXISTS appointment_change_seq START WITH 1;
+
+CREATE TABLE IF NOT EXISTS appointments_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    doctor_name VARCHAR(255) NOT NULL,
+    appointment_date_time TIMESTAMP(6) NOT NULL,
+    reason VARCHAR(255),
+    status VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    change_seq BIGINT DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_appointments_archive_user_id ON appointments_archive (user_id);
+CREATE INDEX IF NOT EXISTS idx_appointments_archive_user_change_seq ON appointments_archive (user_id, change_seq);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    doctor_name VARCHAR(255) NOT NULL,
+    window_start TIMESTAMP(6) NOT NULL,
+    window_end TIMESTAMP(6) NOT NULL,
+    reason VARCHAR(255),
+    status VARCHAR(255),
+    appointment_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_waitlist_user_id ON waitlist_entries (user_id);
+CREATE INDEX IF NOT EXISTS idx_waitlist_status ON waitlist_entries (status);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    jti VARCHAR(255),
+    user_id BIGINT,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,426 @@
+package com.healthcare.appointment.cluster;
+
+import com.healthcare.appointment.AppointmentApplication;
+import com.healthcare.appointment.dto.AppointmentRequest;
+import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.service.AppointmentService;
+import com.healthcare.appointment.service.DoctorLoadStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts several application contexts in one JVM, joined through the loopback transport and
+ * sharing one H2 database, and books through the real {@link AppointmentService#createAppointment}
+ * on random nodes.
+ * <p>
+ * Every commit or rollback waits 10 ms, like a round trip to a remote database. The booking
+ * tests check that no slot is ever booked twice, including when a doctor changes owner while
+ * the old owner still has a booking in flight. A node that joins while bookings commit must
+ * count each of them exactly once in its doctor stats.
+ * <p>
+ * The throughput comparison is tagged {@code benchmark} and only runs with {@code -Pbenchmark}.
+ */
+class ClusterBookingTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final long COMMIT_LATENCY_MILLIS = 10;
+    private static final int CLIENT_THREADS = 32;
+    private static final int DOCTORS = 64;
+    private static final int SLOTS_PER_DOCTOR = 40;
+    private static final long RUN_MILLIS = 4_000;
+    private static final int HANDOVER_DOCTORS = 8;
+
+    private final String clusterName = "cluster-test-" + UUID.randomUUID();
+    private final String databaseUrl = "jdbc:h2:mem:" + clusterName + ";DB_CLOSE_DELAY=-1";
+    // Nodes started by the current test, stopped after it
+    private final List<ConfigurableApplicationContext> nodes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger startedNodes = new AtomicInteger();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void ownerRoutingPreventsDoubleBookings() throws InterruptedException {
+        startNode();
+        startNode();
+        LocalDate day = LocalDate.now().plusDays(10);
+
+        Phase phase = runPhase(day, () -> sleep(RUN_MILLIS / 2));
+
+        assertTrue(phase.failures.isEmpty(), () -> "Unexpected failure: " + phase.failures.get(0));
+        assertTrue(phase.rejected.sum() > 0, "the phase should contend for slots");
+        assertNoDoubleBookings(day);
+        assertEquals(phase.booked.sum(), countRows(day));
+        long forwarded = nodes.stream()
+                .mapToLong(node -> node.getBean(ClusterCoordinator.class).getForwardedCommands()).sum();
+        assertTrue(forwarded > 0, "requests for other nodes' doctors should be forwarded");
+    }
+
+    @Test
+    void membershipChangeWhileBookingsAreInFlightLeavesNoDoubleBookings() throws Exception {
+        SlowCommits firstNodeCommits = new SlowCommits();
+        ConfigurableApplicationContext first = startNode(HANDOVER_DOCTORS + 1, firstNodeCommits);
+        LocalDateTime slot = LocalDate.now().plusDays(20).atTime(9, 0);
+        List<String> doctors = doctorsOnDistinctStripes(HANDOVER_DOCTORS);
+        ExecutorService clients = Executors.newCachedThreadPool();
+        try {
+            // The only node owns every doctor; hold each booking between its insert and its commit
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch held = firstNodeCommits.holdCommits(doctors.size(), release);
+            List<Future<?>> firstBookings = new ArrayList<>();
+            for (String doctor : doctors) {
+                firstBookings.add(clients.submit(() -> book(first, doctor, slot)));
+            }
+            assertTrue(held.await(10, TimeUnit.SECONDS), "bookings should reach their commit");
+
+            // The new member owns some of those doctors while the old owner still holds their slot uncommitted
+            ConfigurableApplicationContext second = startNode(HANDOVER_DOCTORS + 1, new SlowCommits());
+            ClusterCoordinator coordinator = first.getBean(ClusterCoordinator.class);
+            String secondNodeId = second.getBean(ClusterCoordinator.class).getLocalNodeId();
+            List<Future<?>> secondBookings = new ArrayList<>();
+            for (String doctor : doctors) {
+                if (coordinator.ownerOf(doctor).equals(secondNodeId)) {
+                    secondBookings.add(clients.submit(() -> book(second, doctor, slot)));
+                }
+            }
+            assertFalse(secondBookings.isEmpty(), "the new member should take over some doctors");
+
+            // The slot check cannot see the uncommitted rows; only the constraint can stop these inserts
+            awaitInsertingOrDone(secondBookings);
+            release.countDown();
+
+            for (Future<?> booking : firstBookings) {
+                booking.get(10, TimeUnit.SECONDS);
+            }
+            for (Future<?> booking : secondBookings) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> booking.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+                assertEquals("Doctor is already booked at this time", e.getCause().getMessage());
+            }
+            assertNoDoubleBookings(slot.toLocalDate());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleWriteCannotReviveACancelledAppointment() {
+        startNode();
+        ConfigurableApplicationContext node = nodes.get(0);
+        AppointmentRepository appointments = node.getBean(AppointmentRepository.class);
+        book(node, "Dr. Stale", LocalDate.now().plusDays(30).atTime(9, 0));
+        Appointment stale = appointments.findAll().get(0);
+
+        // A write routed to another node read the row before the cancel committed
+        node.getBean(AppointmentService.class).cancelAppointment(stale.getId(), 1L);
+        stale.setReason("Stale write");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> appointments.save(stale));
+        assertEquals("CANCELLED", appointments.findById(stale.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void joiningNodeCountsBookingsRelayedDuringItsRebuild() throws Exception {
+        ConfigurableApplicationContext first = startNode();
+        LocalDate day = LocalDate.now().plusDays(40);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> bookers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                bookers.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        try {
+                            book(first, "Dr. Stats " + random.nextInt(DOCTORS), slot(day, random.nextInt(SLOTS_PER_DOCTOR)));
+                        } catch (RuntimeException e) {
+                            // Slot taken, or routed to the joining node before it is ready
+                        }
+                    }
+                }));
+            }
+            sleep(200);
+            ConfigurableApplicationContext second = startNode();
+            sleep(200);
+            running.set(false);
+            for (Future<?> booker : bookers) {
+                booker.get(10, TimeUnit.SECONDS);
+            }
+
+            // Relayed changes arrive asynchronously; wait for them, then compare with the table
+            Map<String, Long> expected = bookedPerDoctor(day);
+            assertFalse(expected.isEmpty(), "the phase should book appointments");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!statsMatch(second, day, expected) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            for (ConfigurableApplicationContext node : List.of(first, second)) {
+                DoctorLoadStats stats = node.getBean(DoctorLoadStats.class);
+                for (Map.Entry<String, Long> doctor : expected.entrySet()) {
+                    assertEquals(doctor.getValue(), stats.getDoctorDay(doctor.getKey(), day).getBooked(),
+                            () -> doctor.getKey() + " on " + node.getBean(ClusterCoordinator.class).getLocalNodeId());
+                }
+                assertEquals(expected.size(), stats.getDay(day).size());
+            }
+        } finally {
+            running.set(false);
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void throughputScalesWithNodes() throws InterruptedException {
+        startNode();
+        double oneNode = runPhase(LocalDate.now().plusDays(31), () -> sleep(RUN_MILLIS)).requestsPerSecond();
+        startNode();
+        double twoNodes = runPhase(LocalDate.now().plusDays(32), () -> sleep(RUN_MILLIS)).requestsPerSecond();
+        startNode();
+        startNode();
+        double fourNodes = runPhase(LocalDate.now().plusDays(34), () -> sleep(RUN_MILLIS)).requestsPerSecond();
+
+        System.out.printf("Bookings per second: 1 node %.0f, 2 nodes %.0f, 4 nodes %.0f%n",
+                oneNode, twoNodes, fourNodes);
+        assertTrue(twoNodes > 1.5 * oneNode, "2 nodes: " + twoNodes + " vs 1 node: " + oneNode);
+        assertTrue(fourNodes > 2.5 * oneNode, "4 nodes: " + fourNodes + " vs 1 node: " + oneNode);
+    }
+
+    private static final class Phase {
+        final LongAdder booked = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final List<Throwable> failures = new CopyOnWriteArrayList<>();
+        double seconds;
+
+        double requestsPerSecond() {
+            return (booked.sum() + rejected.sum()) / seconds;
+        }
+    }
+
+    // Books on random live nodes from CLIENT_THREADS threads while whileRunning runs
+    private Phase runPhase(LocalDate day, Runnable whileRunning) throws InterruptedException {
+        Phase phase = new Phase();
+        long started = System.nanoTime();
+        List<Thread> clients = new ArrayList<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            Thread client = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    AppointmentRequest request = new AppointmentRequest();
+                    request.setDoctorName("Dr. Cluster " + random.nextInt(DOCTORS));
+                    request.setAppointmentDateTime(slot(day, random.nextInt(SLOTS_PER_DOCTOR)));
+                    request.setReason("Cluster test");
+                    List<ConfigurableApplicationContext> live = List.copyOf(nodes);
+                    try {
+                        live.get(random.nextInt(live.size())).getBean(AppointmentService.class)
+                                .createAppointment((long) random.nextInt(1_000), request);
+                        phase.booked.increment();
+                    } catch (IllegalArgumentException e) {
+                        phase.rejected.increment(); // Slot already taken
+                    } catch (RuntimeException e) {
+                        phase.failures.add(e);
+                    }
+                }
+            });
+            client.start();
+            clients.add(client);
+        }
+        try {
+            whileRunning.run();
+        } finally {
+            running.set(false);
+            for (Thread client : clients) {
+                client.join();
+            }
+        }
+        phase.seconds = (System.nanoTime() - started) / 1e9;
+        return phase;
+    }
+
+    private void assertNoDoubleBookings(LocalDate day) {
+        List<Map<String, Object>> doubleBooked = nodes.get(0).getBean(JdbcTemplate.class).queryForList(
+                "SELECT doctor_name, appointment_date_time, COUNT(*) AS bookings FROM appointments "
+                        + "WHERE status <> 'CANCELLED' AND CAST(appointment_date_time AS DATE) = ? "
+                        + "GROUP BY doctor_name, appointment_date_time HAVING COUNT(*) > 1", day);
+        assertTrue(doubleBooked.isEmpty(), "double bookings: " + doubleBooked);
+    }
+
+    private long countRows(LocalDate day) {
+        return nodes.get(0).getBean(JdbcTemplate.class).queryForObject(
+                "SELECT COUNT(*) FROM appointments WHERE CAST(appointment_date_time AS DATE) = ?", Long.class, day);
+    }
+
+    private Map<String, Long> bookedPerDoctor(LocalDate day) {
+        Map<String, Long> booked = new HashMap<>();
+        nodes.get(0).getBean(JdbcTemplate.class).query(
+                "SELECT doctor_name, COUNT(*) FROM appointments "
+                        + "WHERE status <> 'CANCELLED' AND CAST(appointment_date_time AS DATE) = ? GROUP BY doctor_name",
+                row -> {
+                    booked.put(row.getString(1), row.getLong(2));
+                }, day);
+        return booked;
+    }
+
+    private static boolean statsMatch(ConfigurableApplicationContext node, LocalDate day, Map<String, Long> expected) {
+        DoctorLoadStats stats = node.getBean(DoctorLoadStats.class);
+        return expected.entrySet().stream()
+                .allMatch(doctor -> stats.getDoctorDay(doctor.getKey(), day).getBooked() == doctor.getValue());
+    }
+
+    private static void book(ConfigurableApplicationContext node, String doctor, LocalDateTime slot) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setDoctorName(doctor);
+        request.setAppointmentDateTime(slot);
+        request.setReason("Handover test");
+        node.getBean(AppointmentService.class).createAppointment(1L, request);
+    }
+
+    // Doctors that never wait on each other's owner lock
+    private static List<String> doctorsOnDistinctStripes(int count) {
+        List<String> doctors = new ArrayList<>();
+        Set<Integer> stripes = new HashSet<>();
+        for (int i = 0; doctors.size() < count; i++) {
+            String doctor = "Dr. Handover " + i;
+            if (stripes.add(Math.floorMod(doctor.hashCode(), ClusterCoordinator.LOCK_STRIPES))) {
+                doctors.add(doctor);
+            }
+        }
+        return doctors;
+    }
+
+    // Waits until every booking is retrying its insert against the uncommitted rows, or has finished
+    private void awaitInsertingOrDone(List<Future<?>> bookings) throws InterruptedException {
+        // Outside the node pools, which the held commits may have drained
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(databaseUrl, "sa", ""));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Long inserting = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS "
+                    + "WHERE LOWER(EXECUTING_STATEMENT) LIKE 'insert into appointments%'", Long.class);
+            if (inserting >= bookings.size() || bookings.stream().allMatch(Future::isDone)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("bookings on the new owner neither reached the database nor finished");
+    }
+
+    private static LocalDateTime slot(LocalDate day, int index) {
+        return day.atTime(8 + index / 4, (index % 4) * 15);
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        return startNode(POOL_SIZE, new SlowCommits());
+    }
+
+    private ConfigurableApplicationContext startNode(int poolSize, SlowCommits commits) {
+        ConfigurableApplicationContext node = new SpringApplicationBuilder(AppointmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(commits))
+                // schema.sql + validate: ddl-auto=update re-adds unique keys, waiting on in-flight bookings
+                .run("--spring.profiles.active=fast",
+                        "--spring.datasource.url=" + databaseUrl,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--cluster.name=" + clusterName,
+                        "--cluster.node-id=node-" + startedNodes.getAndIncrement());
+        nodes.add(node);
+        return node;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class SlowCommits implements BeanPostProcessor {
+
+        private volatile CountDownLatch held = new CountDownLatch(0);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        // Commits from now on count down the returned latch and then wait for release
+        CountDownLatch holdCommits(int count, CountDownLatch release) {
+            this.held = new CountDownLatch(count);
+            this.release = release;
+            return held;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return withLatency(super.getConnection());
+                }
+            };
+        }
+
+        private Connection withLatency(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("commit")) {
+                            held.countDown();
+                            release.await();
+                        }
+                        if (method.getName().equals("commit") || method.getName().equals("rollback")) {
+                            Thread.sleep(COMMIT_LATENCY_MILLIS);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
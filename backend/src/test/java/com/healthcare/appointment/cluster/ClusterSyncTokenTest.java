@@ -0,0 +1,87 @@
+package com.healthcare.appointment.cluster;
+
+import com.healthcare.appointment.AppointmentApplication;
+import com.healthcare.appointment.service.ChangeSequence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts sharing one H2 database: a change value still in flight on one
+ * node must hold back the sync token handed out by the other, even after the other node
+ * commits higher values.
+ */
+class ClusterSyncTokenTest {
+
+    private static final String CLUSTER_NAME = "sync-token-test-" + UUID.randomUUID();
+    private static final String DATABASE_URL = "jdbc:h2:mem:" + CLUSTER_NAME + ";DB_CLOSE_DELAY=-1";
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void tokenStaysBelowValuesInFlightOnOtherNodes() throws Exception {
+        ChangeSequence sequenceA = nodeA.getBean(ChangeSequence.class);
+        ChangeSequence sequenceB = nodeB.getBean(ChangeSequence.class);
+        CountDownLatch allocated = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Long> slowWrite = CompletableFuture.supplyAsync(() ->
+                nodeB.getBean(TransactionTemplate.class).execute(status -> {
+                    long seq = sequenceB.next();
+                    allocated.countDown();
+                    try {
+                        commit.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return seq;
+                }));
+        assertTrue(allocated.await(10, TimeUnit.SECONDS));
+
+        long fastSeq = nodeA.getBean(TransactionTemplate.class).execute(status -> sequenceA.next());
+        long token = sequenceA.syncToken();
+
+        commit.countDown();
+        long slowSeq = slowWrite.get(10, TimeUnit.SECONDS);
+        assertTrue(fastSeq > slowSeq, "sequence values must be shared across nodes");
+        assertEquals(slowSeq - 1, token, "token must not pass the value in flight on node-b");
+        assertEquals(fastSeq, sequenceA.syncToken());
+        assertEquals(fastSeq, sequenceB.syncToken());
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(AppointmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + DATABASE_URL,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--cluster.name=" + CLUSTER_NAME,
+                        "--cluster.node-id=" + nodeId);
+    }
+}
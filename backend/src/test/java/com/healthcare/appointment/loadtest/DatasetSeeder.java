@@ -0,0 +1,215 @@
+package com.healthcare.appointment.loadtest;
+
+import com.healthcare.appointment.search.AppointmentSearchIndex;
+import com.healthcare.appointment.service.DoctorLoadStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a synthetic dataset straight into the datastore. Lives on the test classpath only:
+ * {@code mvn spring-boot:test-run -Dspring-boot.run.profiles=seed}.
+ * Doctor popularity follows a Zipf distribution and bookings cluster around rush hours.
+ * Every seeded user has the password "password123".
+ */
+@Component
+@Profile("seed")
+public class DatasetSeeder implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    static final String USERNAME_PREFIX = "seed-user-";
+    static final String PASSWORD = "password123";
+
+    private static final String[] SURNAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+    private static final String[] REASONS = {
+            "Annual check-up", "Follow-up visit", "Flu symptoms", "Back pain", "Blood test results",
+            "Vaccination", "Skin rash", "Headache and dizziness", "Prescription renewal", "Knee injury",
+            "Allergy consultation", "Chest pain", "Pregnancy check", "Sleep problems", "Sports physical"
+    };
+    // Relative booking weight per half-hour slot from 08:00 to 18:00; peaks at opening, lunch and after work
+    private static final double[] SLOT_WEIGHTS = {
+            3.0, 3.0, 2.0, 1.5, 1.0, 1.0, 1.0, 1.5, 2.5, 2.5,
+            1.5, 1.0, 1.0, 1.0, 1.0, 1.5, 2.0, 3.0, 3.0, 2.0
+    };
+    private static final int FIRST_SLOT_HOUR = 8;
+    private static final int MAX_SLOT_ATTEMPTS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final DoctorLoadStats doctorLoadStats;
+    private final AppointmentSearchIndex appointmentSearchIndex;
+
+    @Value("${seed.users:100000}")
+    private int userCount;
+
+    @Value("${seed.doctors:500}")
+    private int doctorCount;
+
+    @Value("${seed.appointments:1000000}")
+    private int appointmentCount;
+
+    @Value("${seed.past-days:365}")
+    private int pastDays;
+
+    @Value("${seed.future-days:90}")
+    private int futureDays;
+
+    @Value("${seed.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${seed.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    public DatasetSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, DoctorLoadStats doctorLoadStats,
+                         AppointmentSearchIndex appointmentSearchIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.doctorLoadStats = doctorLoadStats;
+        this.appointmentSearchIndex = appointmentSearchIndex;
+    }
+
+    static String doctorName(int index) {
+        return "Dr. " + SURNAMES[index % SURNAMES.length] + " " + (index + 1);
+    }
+
+    @Override
+    public void run(String... args) {
+        long started = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        long firstUserId = seedUsers();
+        seedAppointments(random, firstUserId);
+        // The index was built before this runner started and direct inserts publish no events
+        appointmentSearchIndex.build();
+        logger.info("Seeded {} users, {} doctors and {} appointments in {} ms",
+                userCount, doctorCount, appointmentCount, System.currentTimeMillis() - started);
+    }
+
+    private long seedUsers() {
+        Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        String hash = passwordEncoder.encode(PASSWORD); // BCrypt once, not millions of times
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= userCount; i++) {
+            batch.add(new Object[] { USERNAME_PREFIX + i, hash, USERNAME_PREFIX + i + "@example.com", "Seed", "User " + i });
+            if (batch.size() == batchSize || i == userCount) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO users (username, password, email, first_name, last_name) VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+                logProgress("users", i, userCount);
+            }
+        }
+        return maxBefore + 1;
+    }
+
+    private void seedAppointments(Random random, long firstUserId) {
+        double[] doctorCdf = cumulative(zipfWeights(doctorCount, zipfExponent));
+        double[] slotCdf = cumulative(SLOT_WEIGHTS);
+        int days = pastDays + futureDays;
+        int slotsPerDoctor = days * SLOT_WEIGHTS.length;
+        BitSet taken = new BitSet(doctorCount * slotsPerDoctor);
+        LocalDate firstDay = LocalDate.now().minusDays(pastDays);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 1; i <= appointmentCount; i++) {
+            int doctor = sample(doctorCdf, random);
+            int day = 0;
+            int slot = 0;
+            boolean free = false;
+            for (int attempt = 0; attempt < MAX_SLOT_ATTEMPTS && !free; attempt++) {
+                day = random.nextInt(days);
+                slot = sample(slotCdf, random);
+                free = !taken.get(doctor * slotsPerDoctor + day * SLOT_WEIGHTS.length + slot);
+            }
+
+            LocalDateTime dateTime = firstDay.plusDays(day).atTime(FIRST_SLOT_HOUR + slot / 2, (slot % 2) * 30);
+            boolean past = dateTime.isBefore(now);
+            String status;
+            if (!free || random.nextDouble() < (past ? 0.10 : 0.08)) {
+                status = "CANCELLED"; // Hot doctors are full; cancelled rows do not block the slot
+            } else {
+                status = past ? "COMPLETED" : "SCHEDULED";
+                taken.set(doctor * slotsPerDoctor + day * SLOT_WEIGHTS.length + slot);
+            }
+            LocalDateTime createdAt = dateTime.minusDays(1 + random.nextInt(30));
+            if (createdAt.isAfter(now)) {
+                createdAt = now;
+            }
+
+            batch.add(new Object[] {
+                    firstUserId + random.nextInt(userCount),
+                    doctorName(doctor),
+                    Timestamp.valueOf(dateTime),
+                    REASONS[random.nextInt(REASONS.length)],
+                    status,
+                    Timestamp.valueOf(createdAt),
+                    0L, // Seeded rows predate every sync token
+                    0L
+            });
+            if (batch.size() == batchSize || i == appointmentCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO appointments (user_id, doctor_name, appointment_date_time, reason, status, created_at, change_seq, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                // Direct inserts publish no events and the stats were rebuilt before seeding started
+                for (Object[] row : batch) {
+                    doctorLoadStats.recordInserted((String) row[1], ((Timestamp) row[2]).toLocalDateTime().toLocalDate(),
+                            (String) row[4]);
+                }
+                batch.clear();
+                logProgress("appointments", i, appointmentCount);
+            }
+        }
+    }
+
+    private static double[] zipfWeights(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1.0 / Math.pow(k + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, Random random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private static void logProgress(String what, int done, int total) {
+        if (done == total || done % 100_000 == 0) {
+            logger.info("Seeding {}: {}/{}", what, done, total);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.healthcare.appointment.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load driver for the REST API. Requests are issued at a fixed arrival rate and
+ * latency is measured from each request's intended start time, so a stalled server is
+ * charged for the requests it delayed (coordinated-omission correction).
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.healthcare.appointment.loadtest.LoadDriver \
+ *   -Dexec.args="--rate=200 --duration=60 --out=target/load-results.json [--baseline=previous.json]"
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final String[] OPERATIONS = { "register", "login", "book", "reschedule", "cancel", "list" };
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final double[] mixCdf;
+    private final int doctors;
+
+    private static final class VirtualUser {
+        final String username;
+        volatile String token;
+        final List<Long> appointmentIds = new ArrayList<>();
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+    }
+
+    private static final class LatencyRecorder {
+        private long[] micros = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long latencyMicros, boolean error) {
+            if (count == micros.length) {
+                micros = Arrays.copyOf(micros, count * 2);
+            }
+            micros[count++] = latencyMicros;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized Map<String, Object> summary() {
+            long[] sorted = Arrays.copyOf(micros, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("errors", errors);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p90Ms", percentile(sorted, 0.90));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("p999Ms", percentile(sorted, 0.999));
+            summary.put("maxMs", count == 0 ? 0 : sorted[count - 1] / 1000.0);
+            summary.put("meanMs", count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1000.0);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadDriver(options).run();
+    }
+
+    LoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        this.doctors = Integer.parseInt(options.getOrDefault("doctors", "500"));
+        // Default mix: read-heavy, like a mobile client opening the app
+        String[] mix = options.getOrDefault("mix", "register:2,login:8,book:20,reschedule:5,cancel:5,list:60").split(",");
+        double[] weights = new double[OPERATIONS.length];
+        for (String entry : mix) {
+            String[] parts = entry.split(":");
+            weights[Arrays.asList(OPERATIONS).indexOf(parts[0])] = Double.parseDouble(parts[1]);
+        }
+        double sum = Arrays.stream(weights).sum();
+        this.mixCdf = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i] / sum;
+            mixCdf[i] = running;
+        }
+        for (String operation : OPERATIONS) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    void run() throws Exception {
+        int rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "200"));
+
+        System.out.println("Registering " + userCount + " virtual users...");
+        for (int i = 0; i < userCount; i++) {
+            VirtualUser user = new VirtualUser("load-" + runId + "-" + i);
+            JsonNode response = send(register(user.username)).join();
+            user.token = response.path("token").asText(null);
+            users.add(user);
+        }
+
+        System.out.println("Running " + rate + " req/s for " + durationSeconds + " s...");
+        long periodNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long total = (long) rate * durationSeconds;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * periodNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(issue(pickOperation(), intended));
+            if (inFlight.size() > 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("runId", runId);
+        results.put("timestamp", LocalDateTime.now().toString());
+        results.put("config", new LinkedHashMap<>(options));
+        results.put("requests", total);
+        results.put("achievedRate", total / elapsedSeconds);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> operations.put(name, recorder.summary()));
+        results.put("operations", operations);
+
+        String out = options.getOrDefault("out", "load-results.json");
+        mapper.writeValue(new File(out), results);
+        System.out.println(mapper.writeValueAsString(operations));
+        System.out.println("Results written to " + out);
+        if (options.containsKey("baseline")) {
+            compare(mapper.readTree(new File(options.get("baseline"))), operations);
+        }
+    }
+
+    private String pickOperation() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < mixCdf.length; i++) {
+            if (r < mixCdf[i]) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[OPERATIONS.length - 1];
+    }
+
+    private CompletableFuture<?> issue(String operation, long intendedNanos) {
+        VirtualUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        Long appointmentId = randomAppointment(user);
+        HttpRequest request = switch (operation) {
+            case "register" -> register("load-" + runId + "-" + UUID.randomUUID());
+            case "login" -> json("/auth/login", "POST", null,
+                    Map.of("username", user.username, "password", DatasetSeeder.PASSWORD));
+            case "book" -> json("/appointments", "POST", user.token, appointmentBody());
+            case "reschedule" -> appointmentId == null ? null
+                    : json("/appointments/" + appointmentId, "PUT", user.token, appointmentBody());
+            case "cancel" -> appointmentId == null ? null
+                    : authorized("/appointments/" + appointmentId, user.token).DELETE().build();
+            default -> authorized("/appointments", user.token).GET().build();
+        };
+        if (request == null) {
+            // Nothing to reschedule or cancel yet; list instead so the arrival rate holds
+            return issue("list", intendedNanos);
+        }
+
+        LatencyRecorder recorder = recorders.get(operation);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    recorder.record((System.nanoTime() - intendedNanos) / 1000,
+                            error != null || response.statusCode() >= 500);
+                    if ("book".equals(operation) && response != null && response.statusCode() == 201) {
+                        remember(user, response.body());
+                    } else if ("cancel".equals(operation) && response != null && response.statusCode() == 204) {
+                        synchronized (user.appointmentIds) {
+                            user.appointmentIds.remove(appointmentId);
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private void remember(VirtualUser user, String body) {
+        try {
+            long id = mapper.readTree(body).path("id").asLong();
+            synchronized (user.appointmentIds) {
+                user.appointmentIds.add(id);
+            }
+        } catch (IOException e) {
+            // Ignore unparseable bodies; the latency is already recorded
+        }
+    }
+
+    private static Long randomAppointment(VirtualUser user) {
+        synchronized (user.appointmentIds) {
+            if (user.appointmentIds.isEmpty()) {
+                return null;
+            }
+            return user.appointmentIds.get(ThreadLocalRandom.current().nextInt(user.appointmentIds.size()));
+        }
+    }
+
+    private Map<String, Object> appointmentBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime dateTime = LocalDate.now().plusDays(1 + random.nextInt(90))
+                .atTime(8 + random.nextInt(10), random.nextBoolean() ? 0 : 30);
+        return Map.of(
+                "doctorName", DatasetSeeder.doctorName(random.nextInt(doctors)),
+                "appointmentDateTime", dateTime.toString(),
+                "reason", "Load test visit");
+    }
+
+    private HttpRequest register(String username) {
+        return json("/auth/register", "POST", null, Map.of(
+                "username", username,
+                "password", DatasetSeeder.PASSWORD,
+                "email", username + "@example.com"));
+    }
+
+    private HttpRequest json(String path, String method, String token, Map<String, Object> body) {
+        try {
+            return authorized(path, token)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    try {
+                        return mapper.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private static void compare(JsonNode baseline, Map<String, Object> operations) {
+        System.out.println("Compared to baseline " + baseline.path("runId").asText() + ":");
+        operations.forEach((name, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> current = (Map<String, Object>) value;
+            JsonNode before = baseline.path("operations").path(name);
+            for (String metric : new String[] { "p50Ms", "p99Ms" }) {
+                double was = before.path(metric).asDouble();
+                double now = ((Number) current.get(metric)).doubleValue();
+                System.out.printf("  %-10s %-6s %9.2f -> %9.2f ms (%+.1f%%)%n",
+                        name, metric, was, now, was == 0 ? 0 : (now - was) / was * 100);
+            }
+        });
+    }
+}
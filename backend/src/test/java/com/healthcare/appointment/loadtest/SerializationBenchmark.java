@@ -0,0 +1,126 @@
+package com.healthcare.appointment.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.healthcare.appointment.dto.AppointmentResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and serialization CPU cost of an appointment list as JSON, the format the API
+ * serves, and the candidates that were measured against it.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.healthcare.appointment.loadtest.SerializationBenchmark -Dexec.args=[listSize]
+ * </pre>
+ */
+public class SerializationBenchmark {
+
+    private static final int ROUNDS = 7;
+    private static final int APPOINTMENTS_PER_MEASUREMENT = 100_000;
+    private static final int MIN_COMPRESSED_BYTES = 1024; // server.compression.min-response-size
+
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int listSize = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int iterations = Math.max(100, APPOINTMENTS_PER_MEASUREMENT / listSize);
+        List<AppointmentResponse> appointments = sampleList(listSize);
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(new ObjectMapper(), false));
+        // Measured and not shipped; kept as test dependencies so the comparison can be rerun
+        mappers.put("smile", mapper(new ObjectMapper(new SmileFactory()), false));
+        mappers.put("json+blackbird", mapper(new ObjectMapper(), true));
+        mappers.put("cbor", mapper(new ObjectMapper(new CBORFactory()), false));
+
+        // Formats take turns within every round, so JIT warm-up and machine noise hit all of
+        // them alike; round -1 only warms up, the median of the others is reported
+        Map<String, double[]> serializeMicros = new LinkedHashMap<>();
+        Map<String, double[]> withGzipMicros = new LinkedHashMap<>();
+        for (String format : mappers.keySet()) {
+            serializeMicros.put(format, new double[ROUNDS]);
+            withGzipMicros.put(format, new double[ROUNDS]);
+        }
+        for (int round = -1; round < ROUNDS; round++) {
+            for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+                ObjectMapper mapper = entry.getValue();
+                double serialize = time(() -> mapper.writeValueAsBytes(appointments), iterations);
+                double withGzip = time(() -> gzip(mapper.writeValueAsBytes(appointments)), iterations);
+                if (round >= 0) {
+                    serializeMicros.get(entry.getKey())[round] = serialize;
+                    withGzipMicros.get(entry.getKey())[round] = withGzip;
+                }
+            }
+        }
+
+        // "sent" is what a client sending Accept-Encoding: gzip receives
+        System.out.printf("%d appointments per response, median of %d rounds%n", listSize, ROUNDS);
+        System.out.printf("%-16s %8s %8s %8s %10s %10s%n", "format", "bytes", "gzip", "sent", "us/op", "us/op+gzip");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            byte[] plain = entry.getValue().writeValueAsBytes(appointments);
+            byte[] gzipped = gzip(plain);
+            int sent = plain.length >= MIN_COMPRESSED_BYTES ? gzipped.length : plain.length;
+            System.out.printf("%-16s %8d %8d %8d %10.1f %10.1f%n", entry.getKey(), plain.length, gzipped.length, sent,
+                    median(serializeMicros.get(entry.getKey())), median(withGzipMicros.get(entry.getKey())));
+        }
+    }
+
+    private static double time(Operation operation, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1000.0 / iterations;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Same date handling as the application's mapper: ISO-8601 strings, not timestamps
+    private static ObjectMapper mapper(ObjectMapper mapper, boolean blackbird) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+
+    private static List<AppointmentResponse> sampleList(int size) {
+        List<AppointmentResponse> appointments = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            appointments.add(new AppointmentResponse((long) i + 1, 42L, DatasetSeeder.doctorName(i % 20),
+                    base.plusDays(i).plusMinutes(30L * (i % 16)), "Follow-up visit " + i,
+                    i % 7 == 0 ? "CANCELLED" : "SCHEDULED", base.minusDays(10).plusMinutes(i)));
+        }
+        return appointments;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
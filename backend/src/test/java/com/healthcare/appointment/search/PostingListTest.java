@@ -0,0 +1,97 @@
+package com.healthcare.appointment.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+    @Test
+    void ascendingAppendsRoundTrip() {
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int id = 0; id < 10 * PostingList.BLOCK_SIZE; id += 3) {
+            list.add(id);
+            expected.add(id);
+        }
+        assertMatches(expected, list);
+    }
+
+    @Test
+    void largeGapsUseMultiByteEncoding() {
+        PostingList list = new PostingList();
+        int[] ids = { 0, 1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE - 1, Integer.MAX_VALUE };
+        for (int id : ids) {
+            list.add(id);
+        }
+        assertArrayEquals(ids, list.toArray());
+        assertTrue(list.contains(Integer.MAX_VALUE));
+        assertFalse(list.contains(Integer.MAX_VALUE - 2));
+    }
+
+    @Test
+    void outOfOrderAddsAndRemovesMatchSortedSet() {
+        Random random = new Random(42);
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), list.remove(id), "remove " + id);
+            } else {
+                expected.add(id);
+                list.add(id);
+            }
+            if (i % 5_000 == 0) {
+                assertMatches(expected, list);
+            }
+        }
+        assertMatches(expected, list);
+    }
+
+    @Test
+    void removingEveryIdEmptiesTheList() {
+        PostingList list = new PostingList();
+        for (int id = 0; id < 3 * PostingList.BLOCK_SIZE; id++) {
+            list.add(id);
+        }
+        for (int id = 3 * PostingList.BLOCK_SIZE - 1; id >= 0; id -= 2) {
+            assertTrue(list.remove(id));
+        }
+        for (int id = 0; id < 3 * PostingList.BLOCK_SIZE; id += 2) {
+            assertTrue(list.remove(id));
+        }
+        assertTrue(list.isEmpty());
+        assertFalse(list.remove(0));
+        list.add(5);
+        assertArrayEquals(new int[] { 5 }, list.toArray());
+    }
+
+    @Test
+    void probeAnswersMembershipInAnyOrder() {
+        Random random = new Random(7);
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            int id = random.nextInt(50_000);
+            list.add(id);
+            expected.add(id);
+        }
+        PostingList.Probe probe = list.probe();
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(60_000);
+            assertEquals(expected.contains(id), probe.contains(id), "contains " + id);
+        }
+    }
+
+    private static void assertMatches(TreeSet<Integer> expected, PostingList list) {
+        assertEquals(expected.size(), list.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray());
+    }
+}
@@ -0,0 +1,78 @@
+package com.healthcare.appointment.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(1 << 17);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            added.add(jti);
+            filter.add(jti);
+        }
+        for (String jti : added) {
+            assertTrue(filter.mightContain(jti), jti);
+        }
+    }
+
+    @Test
+    void falsePositiveRateMatchesSizing() {
+        // About 13 bits per value with 7 hashes: expected rate well under 1%
+        BloomFilter filter = new BloomFilter(1 << 17);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("revoked-" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("valid-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < probes / 100, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyAndTinyFiltersWork() {
+        BloomFilter filter = new BloomFilter(1);
+        assertFalse(filter.mightContain("anything"));
+        filter.add("anything");
+        assertTrue(filter.mightContain("anything"));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        // Small filter so threads keep setting bits in the same words
+        BloomFilter filter = new BloomFilter(1 << 12);
+        int threads = 8;
+        int perThread = 2_000;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    filter.add(thread + ":" + i);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(filter.mightContain(t + ":" + i));
+            }
+        }
+    }
+}
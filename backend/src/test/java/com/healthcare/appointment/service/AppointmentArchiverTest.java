@@ -0,0 +1,127 @@
+package com.healthcare.appointment.service;
+
+import com.healthcare.appointment.AppointmentApplication;
+import com.healthcare.appointment.model.Appointment;
+import com.healthcare.appointment.model.ArchivedAppointment;
+import com.healthcare.appointment.repository.AppointmentRepository;
+import com.healthcare.appointment.repository.ArchivedAppointmentRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the archiver against a real context while another transaction is rewriting one of the
+ * rows it is about to move. The archived copy must be the committed version of the row, and
+ * it must stay in the user's calendar feed.
+ */
+class AppointmentArchiverTest {
+
+    private static final String NAME = "archiver-test-" + UUID.randomUUID();
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void startContext() {
+        context = new SpringApplicationBuilder(AppointmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + NAME + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--archive.initial-delay-ms=3600000",
+                        "--archive.horizon-days=30",
+                        "--cluster.name=" + NAME);
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @Test
+    void updateCommittingDuringArchivingIsNotLost() throws Exception {
+        AppointmentRepository appointments = context.getBean(AppointmentRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Appointment old = new Appointment();
+        old.setUserId(1L);
+        old.setDoctorName("Dr. Archive");
+        old.setAppointmentDateTime(LocalDateTime.now().minusDays(60));
+        old.setReason("before");
+        long id = appointments.save(old).getId();
+
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    Appointment row = appointments.findById(id).orElseThrow();
+                    row.setReason("after");
+                    appointments.saveAndFlush(row);
+                    written.countDown();
+                    sleep(500); // Commit while the archiver is already reading
+                }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+
+        context.getBean(AppointmentArchiver.class).archiveHistory();
+        writer.get(10, TimeUnit.SECONDS);
+
+        ArchivedAppointment archived = context.getBean(ArchivedAppointmentRepository.class).findById(id).orElseThrow();
+        assertEquals("after", archived.getReason());
+        assertFalse(appointments.existsById(id));
+    }
+
+    @Test
+    void archivedAppointmentStaysInCalendarFeed() throws Exception {
+        AppointmentRepository appointments = context.getBean(AppointmentRepository.class);
+        ChangeSequence changeSequence = context.getBean(ChangeSequence.class);
+        CalendarFeedService feed = context.getBean(CalendarFeedService.class);
+
+        Appointment old = new Appointment();
+        old.setUserId(2L);
+        old.setDoctorName("Dr. Feed");
+        old.setAppointmentDateTime(LocalDateTime.now().minusDays(60));
+        Appointment saved = context.getBean(TransactionTemplate.class).execute(status -> {
+            old.setChangeSeq(changeSequence.next());
+            return appointments.save(old);
+        });
+        String uid = "UID:appointment-" + saved.getId() + "@";
+
+        context.getBean(AppointmentArchiver.class).archiveHistory();
+        assertFalse(appointments.existsById(saved.getId()));
+
+        long token = feed.currentSyncToken();
+        assertTrue(feedText(feed, -1, token).contains(uid), "full feed must list archived appointments");
+        assertTrue(feedText(feed, saved.getChangeSeq() - 1, token).contains(uid));
+        assertFalse(feedText(feed, saved.getChangeSeq(), token).contains(uid),
+                "archiving is not a change a delta client has to act on");
+    }
+
+    private static String feedText(CalendarFeedService feed, long afterToken, long upToToken) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        feed.writeFeed(2L, afterToken, upToToken, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
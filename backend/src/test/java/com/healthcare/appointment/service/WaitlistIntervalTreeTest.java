@@ -0,0 +1,112 @@
+package com.healthcare.appointment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaitlistIntervalTreeTest {
+
+    private static final class Window {
+        final long start;
+        final long end;
+        final long id;
+        final long userId;
+
+        Window(long start, long end, long id, long userId) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.userId = userId;
+        }
+    }
+
+    @Test
+    void findsLongestWaitingCoveringWindow() {
+        WaitlistIntervalTree tree = new WaitlistIntervalTree();
+        tree.insert(100, 200, 3, 1);
+        tree.insert(50, 150, 5, 2);
+        tree.insert(120, 130, 1, 3);
+
+        assertEquals(5, tree.findOldestCovering(60, -1));
+        assertEquals(1, tree.findOldestCovering(125, -1));
+        assertEquals(3, tree.findOldestCovering(125, 3));
+        assertEquals(3, tree.findOldestCovering(200, -1)); // Window ends are inclusive
+        assertEquals(-1, tree.findOldestCovering(201, -1));
+        assertEquals(-1, tree.findOldestCovering(49, -1));
+    }
+
+    @Test
+    void pollRemovesTheReturnedEntry() {
+        WaitlistIntervalTree tree = new WaitlistIntervalTree();
+        tree.insert(0, 10, 2, 1);
+        tree.insert(0, 10, 1, 1);
+
+        assertEquals(1, tree.pollOldestCovering(5, -1));
+        assertEquals(2, tree.pollOldestCovering(5, -1));
+        assertEquals(-1, tree.pollOldestCovering(5, -1));
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void removeOnlyMatchesStartAndId() {
+        WaitlistIntervalTree tree = new WaitlistIntervalTree();
+        tree.insert(10, 20, 7, 1);
+
+        assertFalse(tree.remove(11, 7));
+        assertFalse(tree.remove(10, 8));
+        assertTrue(tree.remove(10, 7));
+        assertFalse(tree.remove(10, 7));
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void randomOperationsMatchBruteForce() {
+        Random random = new Random(11);
+        WaitlistIntervalTree tree = new WaitlistIntervalTree();
+        List<Window> windows = new ArrayList<>();
+        long nextId = 1;
+
+        for (int i = 0; i < 20_000; i++) {
+            int op = random.nextInt(10);
+            if (op < 4 || windows.isEmpty()) {
+                // Ids are not correlated with start, like entries joining for windows far ahead
+                long start = random.nextInt(1_000);
+                Window window = new Window(start, start + random.nextInt(200), nextId++, random.nextInt(20));
+                windows.add(window);
+                tree.insert(window.start, window.end, window.id, window.userId);
+            } else if (op < 6) {
+                Window window = windows.remove(random.nextInt(windows.size()));
+                assertTrue(tree.remove(window.start, window.id));
+            } else {
+                long instant = random.nextInt(1_200);
+                long excluded = random.nextInt(3) == 0 ? random.nextInt(20) : -1;
+                Window expected = oldestCovering(windows, instant, excluded);
+                long expectedId = expected == null ? -1 : expected.id;
+                if (op < 8) {
+                    assertEquals(expectedId, tree.findOldestCovering(instant, excluded));
+                } else {
+                    assertEquals(expectedId, tree.pollOldestCovering(instant, excluded));
+                    windows.remove(expected);
+                }
+            }
+            assertEquals(windows.size(), tree.size());
+        }
+    }
+
+    private static Window oldestCovering(List<Window> windows, long instant, long excludedUserId) {
+        Window best = null;
+        for (Window window : windows) {
+            if (window.start <= instant && instant <= window.end && window.userId != excludedUserId
+                    && (best == null || window.id < best.id)) {
+                best = window;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Startup benchmark for the three startup modes:
+#   jvm     - plain fat jar, default profile
+#   fast    - exploded jar + AppCDS archive, "fast" profile (lazy init, schema validation)
+#   native  - GraalVM native image built with -Pnative, "fast" profile (skipped if not built)
+# Reports time to "ready" and time to first request, both measured from process start.
+
+set -e
+cd "$(dirname "$0")"
+
+PORT=8080
+JAR=target/appointment-api-1.0.0.jar
+CDS_DIR=target/cds
+NATIVE=target/appointment-api
+
+if [ ! -f "$JAR" ]; then
+  mvn -B -q package -DskipTests
+fi
+
+# Build the CDS archive: exploded classpath of plain jars, one training run that exits after refresh
+if [ ! -f "$CDS_DIR/application.jsa" ]; then
+  rm -rf "$CDS_DIR" && mkdir -p "$CDS_DIR/exploded"
+  (cd "$CDS_DIR/exploded" && jar xf "../../../$JAR")
+  jar cf "$CDS_DIR/application.jar" -C "$CDS_DIR/exploded/BOOT-INF/classes" .
+  cp -r "$CDS_DIR/exploded/BOOT-INF/lib" "$CDS_DIR/lib"
+  java -XX:ArchiveClassesAtExit="$CDS_DIR/application.jsa" -Dspring.context.exit=onRefresh \
+    -cp "$CDS_DIR/application.jar:$CDS_DIR/lib/*" com.healthcare.appointment.AppointmentApplication \
+    --spring.profiles.active=fast > /dev/null
+fi
+
+run_mode() {
+  local mode=$1
+  shift
+  local log="target/startup-$mode.log"
+  "$@" > "$log" 2>&1 &
+  local pid=$!
+
+  # Any HTTP status counts as "served"; the login endpoint touches security, JPA and the DB
+  until curl -s -o /dev/null -X POST "http://localhost:$PORT/api/auth/login" \
+      -H "Content-Type: application/json" -d '{"username":"nobody","password":"nothing"}'; do
+    sleep 0.05
+  done
+  sleep 0.2
+
+  local ready first
+  ready=$(grep -o 'ready after [0-9]* ms' "$log" | grep -o '[0-9]*' || echo "?")
+  first=$(grep -o 'first request served after [0-9]* ms' "$log" | grep -o '[0-9]*' || echo "?")
+  printf "%-8s ready: %6s ms   first request: %6s ms\n" "$mode" "$ready" "$first"
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+}
+
+echo "=========================================="
+echo "Startup benchmark"
+echo "=========================================="
+run_mode jvm java -jar "$JAR"
+run_mode fast java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" \
+  -cp "$CDS_DIR/application.jar:$CDS_DIR/lib/*" com.healthcare.appointment.AppointmentApplication \
+  --spring.profiles.active=fast
+if [ -x "$NATIVE" ]; then
+  run_mode native "$NATIVE" --spring.profiles.active=fast
+else
+  echo "native   skipped (build with: mvn -Pnative native:compile)"
+fi